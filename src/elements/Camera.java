@@ -3,13 +3,14 @@ package elements;
 import primitives.Color;
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Sampler;
+import primitives.SplittableSampler;
 import primitives.Vector;
 
 import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.isZero;
-import static primitives.Util.random;
 import static renderer.Render.MAX_DEPTH_OF_ADAPTIVE;
 import static renderer.Render.STARTING_DEPTH;
 
@@ -63,6 +64,11 @@ public class Camera {
      */
     private double _apertureRadiusSize = 5;
 
+    /**
+     * The source of the random numbers of the rays (the jitter in the pixel and the point on the aperture)
+     */
+    private Sampler _sampler = new SplittableSampler();
+
     //--------------------------------------------------- SETTERS ---------------------------------------------------//
 
     /**
@@ -82,6 +88,20 @@ public class Camera {
         return this;
     }
 
+    /**
+     * Set the sampler, the source of the random numbers of the rays
+     * (set a sampler with a fixed seed for a reproducible render)
+     *
+     * @param sampler The sampler (Sampler)
+     * @return this (Camera)
+     */
+    public Camera setSampler(Sampler sampler) {
+        _sampler = sampler;
+
+        // return this for chaining
+        return this;
+    }
+
     /**
      * Set the focal distance - the distance from the aperture to the focal plane
      *
@@ -163,6 +183,7 @@ public class Camera {
 
     /**
      * Generate one ray from the camera to the object and go through the view plane
+     * (through a random point in the pixel)
      *
      * @param nX number of columns (int)
      * @param nY number of rows (int)
@@ -171,6 +192,21 @@ public class Camera {
      * @return The ray from the lens of the camera to the p(i,j) in the view plane (Ray)
      */
     public Ray constructRayThroughPixel(int nX, int nY, int j, int i) {
+        return constructRayThroughPixel(nX, nY, j, i, _sampler.random(-0.5, 0.5), _sampler.random(-0.5, 0.5));
+    }
+
+    /**
+     * Generate one ray from the camera to the object and go through the receiving point in the pixel
+     *
+     * @param nX number of columns (int)
+     * @param nY number of rows (int)
+     * @param j  column index of the point in the view plane (int)
+     * @param i  row index of the point in the view plane (int)
+     * @param dX The offset of the point from the pixel center to the right, in pixel widths [-0.5, 0.5]
+     * @param dY The offset of the point from the pixel center upward, in pixel heights [-0.5, 0.5]
+     * @return The ray from the lens of the camera to the point in the view plane (Ray)
+     */
+    public Ray constructRayThroughPixel(int nX, int nY, int j, int i, double dX, double dY) {
 
         //Image center
         Point3D pC = _p0.add(_vTo.scale(_viewPlaneDistance));
@@ -179,17 +215,14 @@ public class Camera {
         double rX = _width / nX;
         double rY = _height / nY;
 
-        //Pixel [i,j] center
-        double yI = -1 * (i - (nY - 1) / 2d) * rY;
-        double xJ = (j - (nX - 1) / 2d) * rX;
-
-        double x = random(-rX / 2, rX / 2);
-        double y = random(-rY / 2, rY / 2);
+        //Pixel [i,j] center, moved by the offsets
+        double yI = (-1 * (i - (nY - 1) / 2d) + dY) * rY;
+        double xJ = (j - (nX - 1) / 2d + dX) * rX;
 
         // in the beginning pIJ is the center pixel, and if we need to move up and down or right and left
         Point3D pIJ = pC;
-        if (xJ != 0) pIJ = pIJ.add(_vRight.scale(xJ + x));
-        if (yI != 0) pIJ = pIJ.add(_vUp.scale(yI + y));
+        if (!isZero(xJ)) pIJ = pIJ.add(_vRight.scale(xJ));
+        if (!isZero(yI)) pIJ = pIJ.add(_vUp.scale(yI));
 
         Vector vIJ = pIJ.subtract(_p0);
 
@@ -461,8 +494,8 @@ public class Camera {
         // Generate random point on the aperture circle
         Point3D pointOnAperture;
         do {
-            double randomX = random(-1 * _apertureRadiusSize, _apertureRadiusSize);
-            double randomY = random(-1 * _apertureRadiusSize, _apertureRadiusSize);
+            double randomX = _sampler.random(-1 * _apertureRadiusSize, _apertureRadiusSize);
+            double randomY = _sampler.random(-1 * _apertureRadiusSize, _apertureRadiusSize);
             pointOnAperture = new Point3D(_p0.getX() + randomX, _p0.getY() + randomY, _p0.getZ());
         }
         while (pointOnAperture.distance(_p0) > _apertureRadiusSize);
@@ -472,6 +505,15 @@ public class Camera {
 
     //--------------------------------------------------- GETTERS ---------------------------------------------------//
 
+    /**
+     * Return the sampler, the source of the random numbers of the rays
+     *
+     * @return The sampler (Sampler)
+     */
+    public Sampler getSampler() {
+        return _sampler;
+    }
+
     public Point3D getP0() {
         return _p0;
     }
@@ -32,4 +32,15 @@ public interface LightSource {
      */
     double getDistance(Point3D point);
 
+    /**
+     * Return the influence radius of the light source: the distance from it beyond which the intensity
+     * of the light (in each color component) is below the receiving minimal intensity
+     *
+     * @param minIntensity The minimal intensity that counts
+     * @return The radius, infinity if the light doesn't diminish with the distance (double)
+     */
+    default double getRadius(double minIntensity) {
+        return Double.POSITIVE_INFINITY;
+    }
+
 }
@@ -96,6 +96,60 @@ public class PointLight extends Light implements LightSource {
         return _position.distance(point);
     }
 
+    /**
+     * Return the influence radius of the light source, by the attenuation factors and the intensity:
+     * the distance d where intensity / (kC + kL * d + kQ * d^2) drops to the minimal intensity
+     *
+     * @param minIntensity The minimal intensity that counts
+     * @return The radius, infinity if the light doesn't diminish with the distance (double)
+     */
+    @Override
+    public double getRadius(double minIntensity) {
+        // The denominator of the proportion at the radius
+        double denominator = getIntensity().getMax() / minIntensity;
+        if (denominator <= kC) return 0;
+
+        if (kQ > 0)
+            return (Math.sqrt(kL * kL + 4 * kQ * (denominator - kC)) - kL) / (2 * kQ);
+        return kL > 0 ? (denominator - kC) / kL : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Return the position point of the light source
+     *
+     * @return The position (Point3D)
+     */
+    public Point3D getPosition() {
+        return _position;
+    }
+
+    /**
+     * Return the constant attenuation factor
+     *
+     * @return kC (double)
+     */
+    public double getKc() {
+        return kC;
+    }
+
+    /**
+     * Return the linear attenuation factor
+     *
+     * @return kL (double)
+     */
+    public double getKl() {
+        return kL;
+    }
+
+    /**
+     * Return the quadratic attenuation factor
+     *
+     * @return kQ (double)
+     */
+    public double getKq() {
+        return kQ;
+    }
+
     /**
      * Set the position point (the source light position)
      *
@@ -0,0 +1,307 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * Bounding volume hierarchy over a set of bounded primitives, built by the surface area heuristic (SAH).
+ * The tree is flattened into arrays in depth first order: the left child of an inner node is the next node,
+ * and the index of the right child is saved in the node.
+ * The class only orders primitive indices, the owner of the tree keeps the primitives themselves.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+final class BVH {
+
+    /**
+     * Maximal number of primitives in a leaf that is not split anyway
+     */
+    static final int MAX_LEAF_SIZE = 4;
+
+    /**
+     * Maximal depth of the tree (the traversal stack size)
+     */
+    static final int MAX_DEPTH = 64;
+
+    /**
+     * Number of buckets for the SAH split evaluation
+     */
+    private static final int BINS = 16;
+
+    /**
+     * Relative cost of traversing an inner node (an intersection with a primitive costs 1)
+     */
+    private static final double TRAVERSAL_COST = 0.5;
+
+    /**
+     * The bounds of the nodes, 6 values per node (see {@link BoundingBox#_bounds})
+     */
+    double[] _bounds;
+
+    /**
+     * For a leaf - the index of its first primitive in {@link #_order},
+     * for an inner node - the index of its right child
+     */
+    int[] _offset;
+
+    /**
+     * For a leaf - the number of its primitives, for an inner node - 0
+     */
+    int[] _count;
+
+    /**
+     * For an inner node - the axis it was split by (0 - x, 1 - y, 2 - z)
+     */
+    int[] _axis;
+
+    /**
+     * The primitive indices ordered by the leaves
+     */
+    final int[] _order;
+
+    /**
+     * The primitives bounds (used during the build only, released after it)
+     */
+    private double[] _primBounds;
+
+    /**
+     * The primitives bounds centers (used during the build only, released after it)
+     */
+    private double[] _centers;
+
+    /**
+     * The number of nodes in the tree
+     */
+    private int _nodeCount = 0;
+
+    /**
+     * c-tor build the tree over the receiving primitives bounds
+     *
+     * @param primBounds The primitives bounds, 6 values per primitive (see {@link BoundingBox#_bounds})
+     * @param count      The number of primitives (at least one)
+     */
+    BVH(double[] primBounds, int count) {
+        _primBounds = primBounds;
+        _centers = new double[3 * count];
+        _order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            _order[i] = i;
+            for (int axis = 0; axis < 3; ++axis)
+                _centers[3 * i + axis] = (primBounds[6 * i + axis] + primBounds[6 * i + axis + 3]) / 2;
+        }
+
+        // A binary tree with n leaves has at most 2n-1 nodes
+        int maxNodes = 2 * count - 1;
+        _bounds = new double[6 * maxNodes];
+        _offset = new int[maxNodes];
+        _count = new int[maxNodes];
+        _axis = new int[maxNodes];
+
+        build(0, count, 1);
+
+        // The tree is kept as long as its owner, so trim the nodes arrays to the built nodes
+        // (usually much less than the maximum) and don't keep the build data with it
+        _bounds = Arrays.copyOf(_bounds, 6 * _nodeCount);
+        _offset = Arrays.copyOf(_offset, _nodeCount);
+        _count = Arrays.copyOf(_count, _nodeCount);
+        _axis = Arrays.copyOf(_axis, _nodeCount);
+        _primBounds = null;
+        _centers = null;
+    }
+
+    /**
+     * Check whether the node is a leaf
+     *
+     * @param node The node index
+     * @return True for a leaf, false for an inner node
+     */
+    boolean isLeaf(int node) {
+        return _count[node] > 0;
+    }
+
+    /**
+     * Slab test of the ray with the node bounds
+     *
+     * @param node        The node index
+     * @param ray         The ray slab data (see {@link BoundingBox#slabData(primitives.Ray)})
+     * @param maxDistance The maximal distance along the ray
+     * @return True if the ray crosses the node bounds
+     */
+    boolean intersects(int node, double[] ray, double maxDistance) {
+        return BoundingBox.intersects(_bounds, 6 * node, ray, maxDistance);
+    }
+
+    /**
+     * Slab test of a packet of rays with the node bounds
+     *
+     * @param node         The node index
+     * @param rays         The rays slab data (a null entry is skipped)
+     * @param maxDistances The maximal distance along each ray
+     * @return True if any ray of the packet crosses the node bounds
+     */
+    boolean intersectsAny(int node, double[][] rays, double[] maxDistances) {
+        for (int i = 0; i < rays.length; ++i)
+            if (rays[i] != null && BoundingBox.intersects(_bounds, 6 * node, rays[i], maxDistances[i]))
+                return true;
+        return false;
+    }
+
+    /**
+     * Recursively build the sub-tree of the primitives in the receiving range of {@link #_order}
+     *
+     * @param start The first index in the range
+     * @param end   The index after the last one in the range
+     * @param depth The depth of the new node
+     * @return The index of the new node
+     */
+    private int build(int start, int end, int depth) {
+        int node = _nodeCount++;
+        int n = end - start;
+
+        // Calculate the node bounds and the bounds of the primitives centers
+        double[] centerBounds = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        int b = 6 * node;
+        for (int axis = 0; axis < 3; ++axis) {
+            _bounds[b + axis] = Double.POSITIVE_INFINITY;
+            _bounds[b + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = start; i < end; ++i) {
+            int prim = _order[i];
+            for (int axis = 0; axis < 3; ++axis) {
+                _bounds[b + axis] = Math.min(_bounds[b + axis], _primBounds[6 * prim + axis]);
+                _bounds[b + axis + 3] = Math.max(_bounds[b + axis + 3], _primBounds[6 * prim + axis + 3]);
+                centerBounds[axis] = Math.min(centerBounds[axis], _centers[3 * prim + axis]);
+                centerBounds[axis + 3] = Math.max(centerBounds[axis + 3], _centers[3 * prim + axis]);
+            }
+        }
+
+        if (n <= MAX_LEAF_SIZE || depth >= MAX_DEPTH)
+            return makeLeaf(node, start, n);
+
+        // Find the cheapest split by the surface area heuristic over buckets of the centers
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+        int[] binCount = new int[BINS];
+        double[] binBounds = new double[6 * BINS];
+        double[] rightArea = new double[BINS];
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = centerBounds[axis], extent = centerBounds[axis + 3] - min;
+            if (extent <= 0) continue;
+
+            Arrays.fill(binCount, 0);
+            for (int i = 0; i < BINS; ++i)
+                resetBounds(binBounds, 6 * i);
+            for (int i = start; i < end; ++i) {
+                int prim = _order[i];
+                int bin = binOf(_centers[3 * prim + axis], min, extent);
+                ++binCount[bin];
+                growBounds(binBounds, 6 * bin, _primBounds, 6 * prim);
+            }
+
+            // Sweep from the right to collect the areas of the right sides
+            double[] acc = new double[6];
+            resetBounds(acc, 0);
+            for (int i = BINS - 1; i > 0; --i) {
+                growBounds(acc, 0, binBounds, 6 * i);
+                rightArea[i] = BoundingBox.surfaceArea(acc, 0);
+            }
+
+            // Sweep from the left and evaluate each split (left side is bins [0, i))
+            resetBounds(acc, 0);
+            int leftCount = 0;
+            for (int i = 1; i < BINS; ++i) {
+                growBounds(acc, 0, binBounds, 6 * (i - 1));
+                leftCount += binCount[i - 1];
+                int rightCount = n - leftCount;
+                if (leftCount == 0 || rightCount == 0) continue;
+                double cost = leftCount * BoundingBox.surfaceArea(acc, 0) + rightCount * rightArea[i];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = i;
+                }
+            }
+        }
+
+        // All the centers are at the same point - cannot split
+        if (bestAxis < 0)
+            return makeLeaf(node, start, n);
+
+        // Compare with the cost of leaving the node as a leaf
+        double area = BoundingBox.surfaceArea(_bounds, b);
+        if (area > 0 && TRAVERSAL_COST * area + bestCost >= n * area && n <= 2 * MAX_LEAF_SIZE)
+            return makeLeaf(node, start, n);
+
+        // Partition the range by the chosen bucket
+        double min = centerBounds[bestAxis], extent = centerBounds[bestAxis + 3] - min;
+        int mid = start;
+        for (int i = start; i < end; ++i) {
+            int prim = _order[i];
+            if (binOf(_centers[3 * prim + bestAxis], min, extent) < bestBin) {
+                _order[i] = _order[mid];
+                _order[mid++] = prim;
+            }
+        }
+
+        _axis[node] = bestAxis;
+        build(start, mid, depth + 1);
+        _offset[node] = build(mid, end, depth + 1);
+        return node;
+    }
+
+    /**
+     * Set the node as a leaf
+     *
+     * @param node  The node index
+     * @param start The index of its first primitive in {@link #_order}
+     * @param n     The number of its primitives
+     * @return The node index
+     */
+    private int makeLeaf(int node, int start, int n) {
+        _offset[node] = start;
+        _count[node] = n;
+        return node;
+    }
+
+    /**
+     * Calculate the bucket of a center value
+     *
+     * @param value  The center value
+     * @param min    The minimal center value
+     * @param extent The range of the center values
+     * @return The bucket index
+     */
+    private static int binOf(double value, double min, double extent) {
+        int bin = (int) (BINS * (value - min) / extent);
+        return bin >= BINS ? BINS - 1 : bin;
+    }
+
+    /**
+     * Set the bounds to an empty box
+     *
+     * @param bounds The bounds array
+     * @param offset The index of the box's first value
+     */
+    private static void resetBounds(double[] bounds, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            bounds[offset + axis] = Double.POSITIVE_INFINITY;
+            bounds[offset + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Grow a box to contain another box
+     *
+     * @param bounds      The bounds array of the growing box
+     * @param offset      The index of the growing box's first value
+     * @param other       The bounds array of the contained box
+     * @param otherOffset The index of the contained box's first value
+     */
+    private static void growBounds(double[] bounds, int offset, double[] other, int otherOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            bounds[offset + axis] = Math.min(bounds[offset + axis], other[otherOffset + axis]);
+            bounds[offset + axis + 3] = Math.max(bounds[offset + axis + 3], other[otherOffset + axis + 3]);
+        }
+    }
+}
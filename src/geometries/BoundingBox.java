@@ -0,0 +1,201 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Axis-aligned bounding box (AABB) in 3D Cartesian coordinate system.
+ * Used for culling and by the bounding volume hierarchy of the geometries collection.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+public class BoundingBox {
+
+    /**
+     * The box of an unbounded shape (e.g. plane), any ray crosses it
+     */
+    public static final BoundingBox INFINITE = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /**
+     * The box of an empty shape (e.g. empty geometries list), no ray crosses it
+     */
+    public static final BoundingBox EMPTY = new BoundingBox(
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    /**
+     * The box corners values, in the order: minX, minY, minZ, maxX, maxY, maxZ
+     */
+    final double[] _bounds;
+
+    /**
+     * c-tor initialize the box with the receiving corner values
+     *
+     * @param minX The minimal x value
+     * @param minY The minimal y value
+     * @param minZ The minimal z value
+     * @param maxX The maximal x value
+     * @param maxY The maximal y value
+     * @param maxZ The maximal z value
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        _bounds = new double[]{minX, minY, minZ, maxX, maxY, maxZ};
+    }
+
+    /**
+     * c-tor calculate the smallest box that contains all the receiving points
+     *
+     * @param points The points to bound (at least one)
+     */
+    public BoundingBox(Point3D... points) {
+        _bounds = new double[]{
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (Point3D p : points) {
+            _bounds[0] = Math.min(_bounds[0], p.getX());
+            _bounds[1] = Math.min(_bounds[1], p.getY());
+            _bounds[2] = Math.min(_bounds[2], p.getZ());
+            _bounds[3] = Math.max(_bounds[3], p.getX());
+            _bounds[4] = Math.max(_bounds[4], p.getY());
+            _bounds[5] = Math.max(_bounds[5], p.getZ());
+        }
+    }
+
+    /**
+     * Return the minimal corner of the box
+     *
+     * @return The minimal corner (Point3D)
+     */
+    public Point3D getMin() {
+        return new Point3D(_bounds[0], _bounds[1], _bounds[2]);
+    }
+
+    /**
+     * Return the maximal corner of the box
+     *
+     * @return The maximal corner (Point3D)
+     */
+    public Point3D getMax() {
+        return new Point3D(_bounds[3], _bounds[4], _bounds[5]);
+    }
+
+    /**
+     * Check whether the box is infinite at least on one of its sides
+     *
+     * @return True if the box is not finite, false otherwise
+     */
+    public boolean isInfinite() {
+        if (isEmpty()) return false;
+        for (double bound : _bounds)
+            if (Double.isInfinite(bound)) return true;
+        return false;
+    }
+
+    /**
+     * Check whether the box contains nothing (its minimal corner is bigger than its maximal corner)
+     *
+     * @return True if the box is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return _bounds[0] > _bounds[3] || _bounds[1] > _bounds[4] || _bounds[2] > _bounds[5];
+    }
+
+    /**
+     * Calculate the smallest box that contains both 'this' box and the receiving one
+     *
+     * @param other The box to unite with
+     * @return The united box (BoundingBox)
+     */
+    public BoundingBox union(BoundingBox other) {
+        double[] b = other._bounds;
+        return new BoundingBox(
+                Math.min(_bounds[0], b[0]), Math.min(_bounds[1], b[1]), Math.min(_bounds[2], b[2]),
+                Math.max(_bounds[3], b[3]), Math.max(_bounds[4], b[4]), Math.max(_bounds[5], b[5]));
+    }
+
+    /**
+     * Calculate the surface area of the box (used by the surface area heuristic)
+     *
+     * @return The surface area (double)
+     */
+    public double surfaceArea() {
+        return surfaceArea(_bounds, 0);
+    }
+
+    /**
+     * Check whether the ray crosses the box between its head and the receiving distance (slab test)
+     *
+     * @param ray         The ray
+     * @param maxDistance The maximal distance along the ray
+     * @return True if the ray crosses the box, false otherwise
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return intersects(_bounds, 0, slabData(ray), maxDistance);
+    }
+
+    /**
+     * Prepare the ray values for the slab test: the head coordinates and the inverse direction
+     *
+     * @param ray The ray
+     * @return Array of: x, y, z of the head and 1/x, 1/y, 1/z of the direction
+     */
+    static double[] slabData(Ray ray) {
+        Point3D p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return new double[]{p0.getX(), p0.getY(), p0.getZ(), 1 / dir.getX(), 1 / dir.getY(), 1 / dir.getZ()};
+    }
+
+    /**
+     * Calculate the surface area of a box stored in a bounds array
+     *
+     * @param bounds The bounds array (6 values per box)
+     * @param offset The index of the box's first value
+     * @return The surface area (double)
+     */
+    static double surfaceArea(double[] bounds, int offset) {
+        double dx = bounds[offset + 3] - bounds[offset];
+        double dy = bounds[offset + 4] - bounds[offset + 1];
+        double dz = bounds[offset + 5] - bounds[offset + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Slab test of a box stored in a bounds array.
+     * A zero direction component gives an infinite inverse, and the NaN produced when the head
+     * lays on a slab boundary is ignored by the comparisons (the head is inside this slab).
+     *
+     * @param bounds      The bounds array (6 values per box)
+     * @param offset      The index of the box's first value
+     * @param ray         The ray slab data (see {@link #slabData(Ray)})
+     * @param maxDistance The maximal distance along the ray
+     * @return True if the ray crosses the box, false otherwise
+     */
+    static boolean intersects(double[] bounds, int offset, double[] ray, double maxDistance) {
+        double tNear = 0, tFar = maxDistance;
+        for (int axis = 0; axis < 3; ++axis) {
+            double inv = ray[axis + 3];
+            double t1 = (bounds[offset + axis] - ray[axis]) * inv;
+            double t2 = (bounds[offset + axis + 3] - ray[axis]) * inv;
+            if (inv < 0) {
+                double t = t1;
+                t1 = t2;
+                t2 = t;
+            }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=" + getMin() +
+                ", max=" + getMax() +
+                '}';
+    }
+}
@@ -4,8 +4,8 @@ import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.List;
-
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Cylinder class representing a three-dimensional cylinder in 3D Cartesian coordinate
@@ -20,6 +20,11 @@ public class Cylinder extends Tube {
      */
     double _height;
 
+    /**
+     * The box bounding the cylinder, for a quick rejection of the rays that miss it
+     */
+    private final BoundingBox _box;
+
     /**
      * Cylinder c-tor receiving a Ray, and two doubles
      *
@@ -29,8 +34,8 @@ public class Cylinder extends Tube {
      */
     public Cylinder(Ray axisRay, double radius, double height) {
         super(axisRay, radius); // initialize the fields to the received values
-        System.out.println("Cylinder created");
         _height = height;
+        _box = calcBoundingBox();
     }
 
     /**
@@ -44,7 +49,8 @@ public class Cylinder extends Tube {
 
 
     /**
-     * Return the normal vector of the cylinder
+     * Return the normal vector of the cylinder.
+     * On the bases the normal is the direction of the axis, on the side it is orthogonal to the axis.
      *
      * @param point The point to measure the normal (Point3D)
      * @return The normal of cylinder (Vector)
@@ -55,29 +61,13 @@ public class Cylinder extends Tube {
         // The center of sides of the cylinder
         Vector directionOfCylinder = _axisRay.getDir();
         Point3D centerOfOneSide = _axisRay.getP0();
-        Point3D centerOfSecondSide = _axisRay.getP0().add(_axisRay.getDir().scale(_height));
 
-        System.out.println("cylinder getNormal called");
-
-        // If the point is the center base (on the sides of the cylinder)
-        if (point.equals(centerOfOneSide) || point.equals(centerOfSecondSide)) {
-            // return the centered ray
-
-            System.out.println("on the center of the cylinder");
-
-            return directionOfCylinder;
-        }
+        // If the point is the center of the first base
+        if (point.equals(centerOfOneSide)) return directionOfCylinder;
 
+        // If the point is on one of the bases
         double projection = directionOfCylinder.dotProduct(point.subtract(centerOfOneSide));
-        //If the point is on the bases but not the center point
-        if (projection == 0) {
-            Vector v1 = point.subtract(centerOfOneSide);
-            System.out.println("on the bases but not center");
-
-            return v1.normalize();
-        }
-
-        System.out.println("on the side");
+        if (isZero(projection) || isZero(projection - _height)) return directionOfCylinder;
 
         //If the point is on the side of the cylinder
         Point3D center = centerOfOneSide.add(directionOfCylinder.scale(projection));
@@ -85,12 +75,102 @@ public class Cylinder extends Tube {
         return v.normalize();
     }
 
+    /**
+     * Return the box bounding the cylinder.
+     * On each axis the bases (discs) reach the center of the base +/- radius * sqrt(1 - d^2),
+     * where d is the axis direction coordinate on the current axis.
+     *
+     * @return The bounding box (BoundingBox)
+     */
     @Override
-    public List<GeoPoint> findGeoIntersections(Ray ray) {
+    public BoundingBox getBoundingBox() {
+        return _box;
+    }
 
+    /**
+     * Calculate the box bounding the cylinder (see {@link #getBoundingBox()})
+     *
+     * @return The bounding box (BoundingBox)
+     */
+    private BoundingBox calcBoundingBox() {
+        Vector dir = _axisRay.getDir();
+        Point3D base1 = _axisRay.getP0();
+        Point3D base2 = _axisRay.getPoint(_height);
+
+        double ex = _radius * Math.sqrt(Math.max(0, 1 - dir.getX() * dir.getX()));
+        double ey = _radius * Math.sqrt(Math.max(0, 1 - dir.getY() * dir.getY()));
+        double ez = _radius * Math.sqrt(Math.max(0, 1 - dir.getZ() * dir.getZ()));
+
+        return new BoundingBox(
+                Math.min(base1.getX(), base2.getX()) - ex,
+                Math.min(base1.getY(), base2.getY()) - ey,
+                Math.min(base1.getZ(), base2.getZ()) - ez,
+                Math.max(base1.getX(), base2.getX()) + ex,
+                Math.max(base1.getY(), base2.getY()) + ey,
+                Math.max(base1.getZ(), base2.getZ()) + ez);
+    }
 
+    /**
+     * Intersect the ray with the shape.
+     * The intersections with the tube of the cylinder are kept only between the bases, and the intersections
+     * with the planes of the bases are kept only inside the discs. A ray which misses the bounding box of the
+     * cylinder (up to the receiving distance) is rejected before any of them is calculated.
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray (a shape may skip farther intersections)
+     * @param t           Array for the distances of the intersections from the head of the ray,
+     *                    ordered by the distance (at least {@link #MAX_INTERSECTIONS} cells)
+     * @return The number of the intersections (int)
+     */
+    @Override
+    protected int intersect(Ray ray, double maxDistance, double[] t) {
+        if (!_box.intersects(ray, maxDistance)) return 0;
+
+        Point3D head = ray.getP0();
+        Vector dir = ray.getDir();
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        double px = head.getX() - _x0, py = head.getY() - _y0, pz = head.getZ() - _z0;
+
+        // The axis components of the ray direction and of the head (the height of the head above the first base)
+        double dv = vx * _dx + vy * _dy + vz * _dz;
+        double dp = px * _dx + py * _dy + pz * _dz;
+
+        // The side - the intersections with the tube between the bases
+        int count = 0;
+        int tubeCount = super.intersect(ray, maxDistance, t);
+        for (int i = 0; i < tubeCount; ++i) {
+            double height = dp + t[i] * dv;
+            if (alignZero(height) > 0 && alignZero(height - _height) < 0) t[count++] = t[i];
+        }
+
+        // The bases - the intersections with the planes of the bases inside the discs
+        if (!isZero(dv)) {
+            double ax = vx - dv * _dx, ay = vy - dv * _dy, az = vz - dv * _dz;
+            double bx = px - dp * _dx, by = py - dp * _dy, bz = pz - dp * _dz;
+            double radiusSquared = _radius * _radius;
+            for (int base = 0; base < 2; ++base) {
+                double tBase = ((base == 0 ? 0 : _height) - dp) / dv;
+                if (alignZero(tBase) <= 0) continue;
+                double rx = bx + tBase * ax, ry = by + tBase * ay, rz = bz + tBase * az;
+                if (alignZero(rx * rx + ry * ry + rz * rz - radiusSquared) < 0) count = insert(t, count, tBase);
+            }
+        }
+        return count;
+    }
 
-        return null;
+    /**
+     * Insert a distance into the ordered distances array
+     *
+     * @param t     The ordered distances array
+     * @param count The number of the distances in the array
+     * @param value The new distance
+     * @return The new number of the distances (int)
+     */
+    private static int insert(double[] t, int count, double value) {
+        int i = count;
+        for (; i > 0 && t[i - 1] > value; --i) t[i] = t[i - 1];
+        t[i] = value;
+        return count + 1;
     }
 
     @Override
@@ -1,7 +1,10 @@
 package geometries;
 
+import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vector;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -19,6 +22,80 @@ public class Geometries implements Intersectable {
      */
     private final List<Intersectable> _intersectables = new LinkedList<>();
 
+    /**
+     * To search the intersections through a bounding volume hierarchy (true) or not (false)
+     */
+    private boolean _bvh = false;
+
+    /**
+     * The bounding volume hierarchy over the geometries
+     * (null if it is not built yet or the list was changed after it was built)
+     */
+    private volatile Hierarchy _hierarchy = null;
+
+    /**
+     * Hierarchy is an internal helper class which holds the built bounding volume hierarchy
+     * together with the geometries it was built over, so it is published to all the threads at once.
+     */
+    private static class Hierarchy {
+        /**
+         * The tree over the bounded geometries (null if there are no bounded geometries)
+         */
+        final BVH tree;
+
+        /**
+         * The bounded geometries, ordered by the leaves of the tree (a leaf refers to a range of them)
+         */
+        final Intersectable[] bounded;
+
+        /**
+         * The triangles of the bounded geometries, in the same slots (the other slots are empty)
+         */
+        final TriangleBatch triangles;
+
+        /**
+         * The unbounded geometries (e.g. planes), checked one by one for each ray
+         */
+        final Intersectable[] unbounded;
+
+        /**
+         * c-tor initialize the fields with the receiving values
+         *
+         * @param tree      The tree over the bounded geometries
+         * @param bounded   The bounded geometries, indexed as the primitives of the tree
+         * @param unbounded The unbounded geometries
+         */
+        Hierarchy(BVH tree, Intersectable[] bounded, Intersectable[] unbounded) {
+            this.tree = tree;
+            this.unbounded = unbounded;
+
+            // Reorder the geometries by the leaves of the tree, and batch the triangles of the leaves
+            this.bounded = new Intersectable[bounded.length];
+            this.triangles = new TriangleBatch(bounded.length);
+            for (int i = 0; i < bounded.length; ++i) {
+                Intersectable geo = bounded[tree._order[i]];
+                this.bounded[i] = geo;
+                if (geo instanceof Triangle) {
+                    List<Point3D> vertices = ((Triangle) geo).vertices;
+                    Point3D p0 = vertices.get(0), p1 = vertices.get(1), p2 = vertices.get(2);
+                    triangles.set(i, p0.getX(), p0.getY(), p0.getZ(), p1.getX(), p1.getY(), p1.getZ(),
+                            p2.getX(), p2.getY(), p2.getZ());
+                }
+            }
+        }
+    }
+
+    /**
+     * The box bounding all the geometries (null if it is not calculated yet or the list was changed)
+     */
+    private volatile BoundingBox _box = null;
+
+    /**
+     * The collections which contain this collection, their hierarchy and bounds contain the geometries
+     * of this collection, so they are calculated again when this collection is changed
+     */
+    private final List<Geometries> _parents = new ArrayList<>();
+
     /**
      * geometries c-tor
      */
@@ -42,6 +119,86 @@ public class Geometries implements Intersectable {
      */
     public void add(Intersectable... intersectable) {
         _intersectables.addAll(Arrays.asList(intersectable));
+        for (Intersectable geo : intersectable)
+            if (geo instanceof Geometries) ((Geometries) geo)._parents.add(this);
+
+        // The hierarchy and the bounds don't contain the new geometries, they will be calculated again
+        invalidate();
+    }
+
+    /**
+     * Drop the hierarchy and the bounds of this collection and of all the collections which contain it
+     * (directly or through other collections), they will be calculated again on the next search
+     */
+    private void invalidate() {
+        _hierarchy = null;
+        _box = null;
+        for (Geometries parent : _parents) parent.invalidate();
+    }
+
+    /**
+     * Set if to search the intersections through a bounding volume hierarchy (true) or not (false).
+     * The hierarchy is built on the first search after any change of the geometries list,
+     * or on demand by {@link #buildBVH()}.
+     *
+     * @param bvh boolean
+     * @return this (Geometries)
+     */
+    public Geometries setBVH(boolean bvh) {
+        _bvh = bvh;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Build the bounding volume hierarchy over the current geometries (by the surface area heuristic)
+     *
+     * @return this (Geometries)
+     */
+    public synchronized Geometries buildBVH() {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> unbounded = new ArrayList<>();
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (Intersectable geo : _intersectables) {
+            BoundingBox box = geo.getBoundingBox();
+            if (box.isInfinite()) {
+                unbounded.add(geo);
+            } else if (!box.isEmpty()) { // An empty shape (e.g. empty geometries) is never intersected
+                bounded.add(geo);
+                boxes.add(box);
+            }
+        }
+
+        double[] primBounds = new double[6 * boxes.size()];
+        for (int i = 0; i < boxes.size(); ++i)
+            System.arraycopy(boxes.get(i)._bounds, 0, primBounds, 6 * i, 6);
+
+        BVH tree = bounded.isEmpty() ? null : new BVH(primBounds, bounded.size());
+        _hierarchy = new Hierarchy(tree, bounded.toArray(new Intersectable[0]), unbounded.toArray(new Intersectable[0]));
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Return the box bounding all the geometries in the list.
+     * The box is calculated once and is kept until the list is changed.
+     *
+     * @return The bounding box, {@link BoundingBox#INFINITE} if any of the geometries is not bounded,
+     * {@link BoundingBox#EMPTY} if the list is empty (BoundingBox)
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        BoundingBox result = _box;
+        if (result == null) {
+            result = BoundingBox.EMPTY;
+            for (Intersectable geo : _intersectables) {
+                result = result.union(geo.getBoundingBox());
+            }
+            _box = result;
+        }
+        return result;
     }
 
     /**
@@ -52,21 +209,403 @@ public class Geometries implements Intersectable {
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray) {
+        if (_bvh) return findGeoIntersectionsBVH(ray);
+
         List<GeoPoint> result = null; // Initialize the intersection GeoPoints list
+        double[] slab = BoundingBox.slabData(ray);
 
         // For each geometry in the saved list in the _intersection field find the intersection GeoPoints
         for (Intersectable geo : _intersectables) {
-            List<GeoPoint> intersectionPoints = geo.findGeoIntersections(ray);
+            result = addIntersections(result, findIntersections(geo, ray, slab));
+        }
+        return result; // The list with all the intersection GeoPoints of the geometries in the list
+    }
+
+    /**
+     * Find the intersection points of all objects in the list through the bounding volume hierarchy
+     *
+     * @param ray light ray
+     * @return List of geometries and their intersection points with the ray (GeoPoint)
+     */
+    private List<GeoPoint> findGeoIntersectionsBVH(Ray ray) {
+        Hierarchy hierarchy = getHierarchy();
+        List<GeoPoint> result = null;
 
-            if (intersectionPoints != null) {
+        double[] slab = BoundingBox.slabData(ray);
 
-                if (result == null) { // If this is the first time to add an intersection, initialize the list
-                    result = new LinkedList<>();
+        // The unbounded geometries can't be culled
+        for (Intersectable geo : hierarchy.unbounded) {
+            result = addIntersections(result, findIntersections(geo, ray, slab));
+        }
+        BVH tree = hierarchy.tree;
+        if (tree == null) return result;
+
+        // Go down only through the nodes which their bounds are crossed by the ray
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!tree.intersects(node, slab, Double.POSITIVE_INFINITY)) continue;
+
+            if (tree.isLeaf(node)) {
+                int end = tree._offset[node] + tree._count[node];
+                for (int i = tree._offset[node]; i < end; ++i)
+                    result = addIntersections(result, findIntersections(hierarchy.bounded[i], ray, slab));
+            } else {
+                stack[top++] = tree._offset[node]; // right child
+                stack[top++] = node + 1; // left child
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the closest intersection point of all objects in the list, closer than the receiving distance.
+     * The distance is shrunk whenever an intersection is found, so farther geometries (and sub-trees of the
+     * bounding volume hierarchy) are skipped.
+     *
+     * @param ray         light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The closest intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double[] slab = BoundingBox.slabData(ray);
+        GeoPoint closest = null;
+
+        if (!_bvh) {
+            for (Intersectable geo : _intersectables) {
+                GeoPoint gp = findClosestIntersection(geo, ray, slab, maxDistance);
+                if (gp != null) {
+                    closest = gp;
+                    maxDistance = gp.getParameter(ray);
                 }
+            }
+            return closest;
+        }
 
-                result.addAll(intersectionPoints); // Add the intersection GeoPoints to the list
+        Hierarchy hierarchy = getHierarchy();
+
+        // The unbounded geometries can't be culled
+        for (Intersectable geo : hierarchy.unbounded) {
+            GeoPoint gp = findClosestIntersection(geo, ray, slab, maxDistance);
+            if (gp != null) {
+                closest = gp;
+                maxDistance = gp.getParameter(ray);
             }
         }
-        return result; // The list with all the intersection GeoPoints of the geometries in the list
+        BVH tree = hierarchy.tree;
+        if (tree == null) return closest;
+
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        // The closest triangle gets its intersection point at the end only
+        int closestTriangle = -1;
+        double[] distance = new double[1];
+
+        // Go down through the crossed nodes from the near child to the far one,
+        // so the distance is shrunk as early as possible
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!tree.intersects(node, slab, maxDistance)) continue;
+
+            if (tree.isLeaf(node)) {
+                int start = tree._offset[node], end = start + tree._count[node];
+
+                // The triangles of the leaf are intersected together
+                int triangle = hierarchy.triangles.closest(start, end,
+                        slab[0], slab[1], slab[2], dx, dy, dz, maxDistance, distance);
+                if (triangle >= 0) {
+                    closestTriangle = triangle;
+                    maxDistance = distance[0];
+                }
+
+                // The other geometries one by one
+                for (int i = start; i < end; ++i) {
+                    if (hierarchy.bounded[i] instanceof Triangle) continue;
+                    GeoPoint gp = findClosestIntersection(hierarchy.bounded[i], ray, slab, maxDistance);
+                    if (gp != null) {
+                        closest = gp;
+                        closestTriangle = -1;
+                        maxDistance = gp.getParameter(ray);
+                    }
+                }
+            } else if (slab[3 + tree._axis[node]] < 0) { // The ray goes to the negative side of the split axis
+                stack[top++] = node + 1; // left child (far)
+                stack[top++] = tree._offset[node]; // right child (near)
+            } else {
+                stack[top++] = tree._offset[node]; // right child (far)
+                stack[top++] = node + 1; // left child (near)
+            }
+        }
+        return closestTriangle < 0 ? closest
+                : new GeoPoint((Geometry) hierarchy.bounded[closestTriangle], ray.getPoint(maxDistance), maxDistance);
+    }
+
+    /**
+     * Find the closest intersections of a packet of rays with all the objects in the list.
+     * Through the bounding volume hierarchy the rays of the packet go down the tree together: a node is visited
+     * if any of the rays crosses its bounds, so each node is fetched once for all the rays, and only the rays
+     * which cross a leaf are intersected with its geometries.
+     *
+     * @param rays         The rays of the packet (a null ray is skipped)
+     * @param maxDistances The maximal distance of each ray from its head (updated)
+     * @param closest      The closest intersection of each ray so far (updated)
+     */
+    @Override
+    public void findClosestGeoIntersections(Ray[] rays, double[] maxDistances, GeoPoint[] closest) {
+        int n = rays.length;
+        double[][] slabs = new double[n][];
+        // The near child is chosen by the direction of the first ray, the rays of a packet are coherent
+        double[] first = null;
+        for (int i = 0; i < n; ++i)
+            if (rays[i] != null) {
+                slabs[i] = BoundingBox.slabData(rays[i]);
+                if (first == null) first = slabs[i];
+            }
+        if (first == null) return;
+
+        if (!_bvh) {
+            for (Intersectable geo : _intersectables)
+                findClosestIntersections(geo, rays, slabs, maxDistances, closest);
+            return;
+        }
+
+        Hierarchy hierarchy = getHierarchy();
+
+        // The unbounded geometries can't be culled
+        for (Intersectable geo : hierarchy.unbounded)
+            findClosestIntersections(geo, rays, slabs, maxDistances, closest);
+        BVH tree = hierarchy.tree;
+        if (tree == null) return;
+
+        // The rays of the packet which cross the current leaf
+        Ray[] leafRays = new Ray[n];
+        double[] distance = new double[1];
+
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!tree.intersectsAny(node, slabs, maxDistances)) continue;
+
+            if (tree.isLeaf(node)) {
+                int start = tree._offset[node], end = start + tree._count[node];
+
+                // The triangles of the leaf are intersected together with each crossing ray
+                for (int i = 0; i < n; ++i) {
+                    leafRays[i] = null;
+                    if (slabs[i] == null || !tree.intersects(node, slabs[i], maxDistances[i])) continue;
+                    leafRays[i] = rays[i];
+
+                    Vector dir = rays[i].getDir();
+                    int triangle = hierarchy.triangles.closest(start, end, slabs[i][0], slabs[i][1], slabs[i][2],
+                            dir.getX(), dir.getY(), dir.getZ(), maxDistances[i], distance);
+                    if (triangle >= 0) {
+                        maxDistances[i] = distance[0];
+                        closest[i] = new GeoPoint((Geometry) hierarchy.bounded[triangle],
+                                rays[i].getPoint(distance[0]), distance[0]);
+                    }
+                }
+
+                // The other geometries with the crossing rays
+                for (int i = start; i < end; ++i)
+                    if (!(hierarchy.bounded[i] instanceof Triangle))
+                        findClosestIntersections(hierarchy.bounded[i], leafRays, slabs, maxDistances, closest);
+            } else if (first[3 + tree._axis[node]] < 0) { // The rays go to the negative side of the split axis
+                stack[top++] = node + 1; // left child (far)
+                stack[top++] = tree._offset[node]; // right child (near)
+            } else {
+                stack[top++] = tree._offset[node]; // right child (far)
+                stack[top++] = node + 1; // left child (near)
+            }
+        }
+    }
+
+    /**
+     * Calculate the transparency of all objects in the list along the ray up to the receiving distance.
+     * The search stops as soon as the ray is blocked, without visiting the rest of the geometries.
+     *
+     * @param ray             light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        return findTransparency(ray, maxDistance, ktr, minTransparency, null);
+    }
+
+    /**
+     * Calculate the transparency of all objects in the list along the ray up to the receiving distance,
+     * and report the geometry which blocked the ray (the innermost one, for a sub-collection).
+     * The search stops as soon as the ray is blocked, without visiting the rest of the geometries.
+     *
+     * @param ray             light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @param occluder        Array for the geometry which blocked the ray (in its first cell), null to not report it
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency,
+                                   Intersectable[] occluder) {
+        double[] slab = BoundingBox.slabData(ray);
+
+        if (!_bvh) {
+            for (Intersectable geo : _intersectables) {
+                ktr = findTransparency(geo, ray, slab, maxDistance, ktr, minTransparency, occluder);
+                if (ktr == 0.0) return 0.0;
+            }
+            return ktr;
+        }
+
+        Hierarchy hierarchy = getHierarchy();
+
+        // The unbounded geometries (e.g. a floor plane) are the most likely to block the ray, check them first
+        for (Intersectable geo : hierarchy.unbounded) {
+            ktr = findTransparency(geo, ray, slab, maxDistance, ktr, minTransparency, occluder);
+            if (ktr == 0.0) return 0.0;
+        }
+        BVH tree = hierarchy.tree;
+        if (tree == null) return ktr;
+
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!tree.intersects(node, slab, maxDistance)) continue;
+
+            if (tree.isLeaf(node)) {
+                int end = tree._offset[node] + tree._count[node];
+                for (int i = tree._offset[node]; i < end; ++i) {
+                    ktr = findTransparency(hierarchy.bounded[i], ray, slab, maxDistance, ktr, minTransparency, occluder);
+                    if (ktr == 0.0) return 0.0;
+                }
+            } else {
+                stack[top++] = tree._offset[node]; // right child
+                stack[top++] = node + 1; // left child
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Return the bounding volume hierarchy, build it if it is not built yet
+     *
+     * @return The hierarchy (Hierarchy)
+     */
+    private Hierarchy getHierarchy() {
+        Hierarchy hierarchy = _hierarchy;
+        if (hierarchy == null) {
+            synchronized (this) {
+                if (_hierarchy == null) buildBVH();
+                hierarchy = _hierarchy;
+            }
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Find the closest intersection point of one geometry of the list (see {@link #findIntersections(Intersectable, Ray, double[])})
+     *
+     * @param geo         The geometry
+     * @param ray         light ray
+     * @param slab        The ray slab data (see {@link BoundingBox#slabData(Ray)})
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The closest intersection point of the geometry (GeoPoint), null if there is none
+     */
+    private static GeoPoint findClosestIntersection(Intersectable geo, Ray ray, double[] slab, double maxDistance) {
+        if (geo instanceof Geometries
+                && !BoundingBox.intersects(geo.getBoundingBox()._bounds, 0, slab, maxDistance))
+            return null;
+        return geo.findClosestGeoIntersection(ray, maxDistance);
+    }
+
+    /**
+     * Find the closest intersections of a packet of rays with one geometry of the list
+     * (see {@link #findIntersections(Intersectable, Ray, double[])})
+     *
+     * @param geo          The geometry
+     * @param rays         The rays of the packet (a null ray is skipped)
+     * @param slabs        The rays slab data (see {@link BoundingBox#slabData(Ray)})
+     * @param maxDistances The maximal distance of each ray from its head (updated)
+     * @param closest      The closest intersection of each ray so far (updated)
+     */
+    private static void findClosestIntersections(Intersectable geo, Ray[] rays, double[][] slabs,
+                                                 double[] maxDistances, GeoPoint[] closest) {
+        if (geo instanceof Geometries) {
+            double[] bounds = geo.getBoundingBox()._bounds;
+            boolean crossed = false;
+            for (int i = 0; i < rays.length && !crossed; ++i)
+                crossed = rays[i] != null && BoundingBox.intersects(bounds, 0, slabs[i], maxDistances[i]);
+            if (!crossed) return;
+        }
+        geo.findClosestGeoIntersections(rays, maxDistances, closest);
+    }
+
+    /**
+     * Calculate the transparency of one geometry of the list (see {@link #findIntersections(Intersectable, Ray, double[])})
+     *
+     * @param geo             The geometry
+     * @param ray             light ray
+     * @param slab            The ray slab data (see {@link BoundingBox#slabData(Ray)})
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @param occluder        Array for the geometry which blocked the ray (in its first cell), null to not report it
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    private static double findTransparency(Intersectable geo, Ray ray, double[] slab, double maxDistance,
+                                           double ktr, double minTransparency, Intersectable[] occluder) {
+        if (geo instanceof Geometries
+                && !BoundingBox.intersects(geo.getBoundingBox()._bounds, 0, slab, maxDistance))
+            return ktr;
+        return occluder == null ? geo.findTransparency(ray, maxDistance, ktr, minTransparency)
+                : geo.findTransparency(ray, maxDistance, ktr, minTransparency, occluder);
+    }
+
+    /**
+     * Find the intersection points of one geometry of the list.
+     * A sub-collection (geometries) is skipped without searching its geometries
+     * if the ray doesn't cross its bounding box.
+     *
+     * @param geo  The geometry
+     * @param ray  light ray
+     * @param slab The ray slab data (see {@link BoundingBox#slabData(Ray)})
+     * @return The intersection points of the geometry (GeoPoint), null if there are none
+     */
+    private static List<GeoPoint> findIntersections(Intersectable geo, Ray ray, double[] slab) {
+        if (geo instanceof Geometries
+                && !BoundingBox.intersects(geo.getBoundingBox()._bounds, 0, slab, Double.POSITIVE_INFINITY))
+            return null;
+        return geo.findGeoIntersections(ray);
+    }
+
+    /**
+     * Add the intersection points of one geometry to the result list
+     *
+     * @param result             The result list (may be null)
+     * @param intersectionPoints The intersection points of the geometry (may be null)
+     * @return The result list
+     */
+    private static List<GeoPoint> addIntersections(List<GeoPoint> result, List<GeoPoint> intersectionPoints) {
+        if (intersectionPoints != null) {
+
+            if (result == null) { // If this is the first time to add an intersection, initialize the list
+                result = new LinkedList<>();
+            }
+
+            result.addAll(intersectionPoints); // Add the intersection GeoPoints to the list
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,13 @@ package geometries;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vector;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static primitives.Util.alignZero;
+
 /**
  * Intersectable interface, to calculate all the intersections on geometries shapes
  *
@@ -33,21 +36,178 @@ public interface Intersectable {
      */
     public List<GeoPoint> findGeoIntersections(Ray ray);
 
+    /**
+     * Find the closest intersection of the ray with the shape which is closer than the receiving distance.
+     * The distance of a point on the ray is its ray parameter (see {@link Ray#getParameter(Point3D)})
+     * so no square root is calculated.
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The closest intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    default GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersections(ray);
+        if (intersections == null) return null;
+
+        GeoPoint closest = null;
+        for (GeoPoint gp : intersections) {
+            double t = gp.getParameter(ray);
+            if (t < maxDistance) {
+                // Shrink the distance to the current closest point
+                maxDistance = t;
+                closest = gp;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Find the closest intersections of a packet of rays with the shape (see {@link #findClosestGeoIntersection(Ray, double)}).
+     * For each ray of the packet, an intersection which is closer than its distance replaces its closest
+     * intersection, and its distance is shrunk to the new intersection.
+     * A packet of coherent rays (e.g. rays through neighbour pixels) may be traced together by the shape.
+     *
+     * @param rays         The rays of the packet (a null ray is skipped)
+     * @param maxDistances The maximal distance of each ray from its head (updated)
+     * @param closest      The closest intersection of each ray so far (updated)
+     */
+    default void findClosestGeoIntersections(Ray[] rays, double[] maxDistances, GeoPoint[] closest) {
+        for (int i = 0; i < rays.length; ++i) {
+            if (rays[i] == null) continue;
+            GeoPoint gp = findClosestGeoIntersection(rays[i], maxDistances[i]);
+            if (gp != null) {
+                closest[i] = gp;
+                maxDistances[i] = gp.getParameter(rays[i]);
+            }
+        }
+    }
+
+    /**
+     * Calculate the transparency of the shape along the ray up to the receiving distance (any-hit query).
+     * The receiving transparency is multiplied by the transparency attenuation factor (kT) of the
+     * material of each intersection that is not farther than maxDistance, and the search stops
+     * as soon as the transparency drops below minTransparency.
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray (see {@link Ray#getParameter(Point3D)})
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    default double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        List<GeoPoint> intersections = findGeoIntersections(ray);
+        if (intersections == null) return ktr;
+
+        for (GeoPoint gp : intersections) {
+            // Only the intersections between the head of the ray and the distance attenuate the light
+            if (alignZero(gp.getParameter(ray) - maxDistance) <= 0) {
+                ktr *= gp._geometry.getMaterial()._kT;
+                if (ktr < minTransparency) return 0.0;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Calculate the transparency of the shape along the ray up to the receiving distance
+     * (see {@link #findTransparency(Ray, double, double, double)}), and report the shape that blocked the ray.
+     * A collection of shapes reports the shape of the collection which blocked the ray.
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray (see {@link Ray#getParameter(Point3D)})
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @param occluder        Array for the shape which blocked the ray (in its first cell), set only if the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    default double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency,
+                                    Intersectable[] occluder) {
+        ktr = findTransparency(ray, maxDistance, ktr, minTransparency);
+        if (ktr == 0.0) occluder[0] = this;
+        return ktr;
+    }
+
+    /**
+     * Return the axis-aligned box that bounds the shape
+     *
+     * @return The bounding box, {@link BoundingBox#INFINITE} if the shape is not bounded (BoundingBox)
+     */
+    public BoundingBox getBoundingBox();
+
         /**
          * The class represent geometries points. (PDS)
+         * The intersector keeps the ray parameter of the point (its distance from the head of the ray),
+         * and the normal of the geometry at the point is calculated once, on the first request.
          */
         public static class GeoPoint {
             public Geometry _geometry;
             public Point3D _point;
 
+            /**
+             * The ray parameter of the point on the ray it was found on, NaN if it is not known
+             */
+            private final double _t;
+
+            /**
+             * The normal of the geometry at the point, null until it is requested
+             */
+            private Vector _normal;
+
             /**
              * c-tor initialize the fields to the receive values
              * @param geometry The geometry
              * @param point The point on the geometry
              */
             public GeoPoint(Geometry geometry, Point3D point) {
+                this(geometry, point, Double.NaN);
+            }
+
+            /**
+             * c-tor initialize the fields to the receive values, with the ray parameter of the point
+             * @param geometry The geometry
+             * @param point The point on the geometry
+             * @param t The ray parameter of the point (see {@link Ray#getParameter(Point3D)})
+             */
+            public GeoPoint(Geometry geometry, Point3D point, double t) {
                 this._geometry = geometry;
                 this._point = point;
+                this._t = t;
+            }
+
+            /**
+             * c-tor initialize the fields to the receive values, with the ray parameter of the point and the normal
+             * of the geometry at the point (for a geometry whose normal is known by the intersector only)
+             * @param geometry The geometry
+             * @param point The point on the geometry
+             * @param t The ray parameter of the point (see {@link Ray#getParameter(Point3D)})
+             * @param normal The normal of the geometry at the point
+             */
+            public GeoPoint(Geometry geometry, Point3D point, double t, Vector normal) {
+                this(geometry, point, t);
+                this._normal = normal;
+            }
+
+            /**
+             * Return the ray parameter of the point (its distance from the head of the ray).
+             * It is calculated only if the intersector didn't keep it.
+             * The kept parameter belongs to the ray the point was found on, so the ray is ignored when it is kept,
+             * and the method must be called with that ray only.
+             *
+             * @param ray The ray the point was found on
+             * @return The ray parameter (double)
+             */
+            public double getParameter(Ray ray) {
+                return !Double.isNaN(_t) ? _t : ray.getParameter(_point);
+            }
+
+            /**
+             * Return the normal of the geometry at the point, calculated on the first call only
+             *
+             * @return The normal (Vector)
+             */
+            public Vector getNormal() {
+                if (_normal == null) _normal = _geometry.getNormal(_point);
+                return _normal;
             }
 
         @Override
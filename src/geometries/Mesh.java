@@ -0,0 +1,400 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Mesh class represents a triangle mesh in 3D Cartesian coordinate system.
+ * The vertices are kept in one flat buffer (x, y, z of each vertex) and the triangles (faces) in an index
+ * buffer (3 vertex indices of each face), and all the faces share the material and the emission of the mesh.
+ * The geometry of the intersection points is the mesh itself, and each point carries the normal of its face.
+ * The mesh has its own bounding volume hierarchy over the faces, so it is added to the geometries collection
+ * as a single intersectable, and the faces are reordered by the leaves of the hierarchy so the faces of
+ * one leaf are adjacent in memory. The faces are also built from the buffers into a {@link TriangleBatch}
+ * in the same order, so the faces of a leaf are intersected together by the batch kernel.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+public class Mesh extends Geometry {
+
+    /**
+     * The vertices coordinates, 3 values (x, y, z) per vertex
+     */
+    private final double[] _vertices;
+
+    /**
+     * The faces vertex indices, 3 indices per face, ordered by the leaves of the tree
+     */
+    private final int[] _faces;
+
+    /**
+     * The faces in the order of the faces buffer, for intersecting the faces of a leaf together
+     */
+    private final TriangleBatch _triangles;
+
+    /**
+     * The bounding volume hierarchy over the faces
+     */
+    private final BVH _tree;
+
+    /**
+     * The box bounding all the faces
+     */
+    private final BoundingBox _box;
+
+    /**
+     * c-tor initiate the mesh with the receiving vertices and faces buffers.
+     * The vertices of a face are ordered according to the direction of its normal (counter-clockwise).
+     *
+     * @param vertices The vertices coordinates, 3 values (x, y, z) per vertex
+     * @param faces    The faces, 3 vertex indices per face
+     * @throws IllegalArgumentException in any case of illegal buffers:
+     *                                  <ul>
+     *                                  <li>The vertices buffer length is not a multiple of 3</li>
+     *                                  <li>There are no faces or the faces buffer length is not a multiple of 3</li>
+     *                                  <li>A face refers to a vertex which is not in the vertices buffer</li>
+     *                                  </ul>
+     */
+    public Mesh(double[] vertices, int[] faces) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices buffer must hold 3 coordinates per vertex");
+        if (faces.length == 0 || faces.length % 3 != 0)
+            throw new IllegalArgumentException("The faces buffer must hold 3 vertex indices per face");
+
+        int vertexCount = vertices.length / 3;
+        int faceCount = faces.length / 3;
+
+        // Calculate the bounds of each face for the tree
+        double[] faceBounds = new double[6 * faceCount];
+        for (int face = 0; face < faceCount; ++face) {
+            for (int k = 0; k < 3; ++k) {
+                int vertex = faces[3 * face + k];
+                if (vertex < 0 || vertex >= vertexCount)
+                    throw new IllegalArgumentException("Face " + face + " refers to a missing vertex " + vertex);
+            }
+            for (int axis = 0; axis < 3; ++axis) {
+                double a = vertices[3 * faces[3 * face] + axis];
+                double b = vertices[3 * faces[3 * face + 1] + axis];
+                double c = vertices[3 * faces[3 * face + 2] + axis];
+                faceBounds[6 * face + axis] = Math.min(a, Math.min(b, c));
+                faceBounds[6 * face + axis + 3] = Math.max(a, Math.max(b, c));
+            }
+        }
+
+        _vertices = vertices.clone();
+        _tree = new BVH(faceBounds, faceCount);
+
+        // Reorder the faces by the leaves of the tree, so a leaf refers to a range of the faces buffer
+        _faces = new int[faces.length];
+        for (int i = 0; i < faceCount; ++i)
+            System.arraycopy(faces, 3 * _tree._order[i], _faces, 3 * i, 3);
+
+        // Build the batch of the faces from the buffers
+        _triangles = new TriangleBatch(faceCount);
+        for (int face = 0; face < faceCount; ++face) {
+            int i0 = 3 * _faces[3 * face], i1 = 3 * _faces[3 * face + 1], i2 = 3 * _faces[3 * face + 2];
+            _triangles.set(face, _vertices[i0], _vertices[i0 + 1], _vertices[i0 + 2],
+                    _vertices[i1], _vertices[i1 + 1], _vertices[i1 + 2],
+                    _vertices[i2], _vertices[i2 + 1], _vertices[i2 + 2]);
+        }
+
+        double[] root = _tree._bounds;
+        _box = new BoundingBox(root[0], root[1], root[2], root[3], root[4], root[5]);
+    }
+
+    /**
+     * Return the number of the faces in the mesh
+     *
+     * @return The number of faces (int)
+     */
+    public int getFacesCount() {
+        return _faces.length / 3;
+    }
+
+    /**
+     * Get the normal of the mesh on a specific point.
+     * The intersection points of the mesh carry the normal of their face (see {@link #findGeoIntersections(Ray)}),
+     * so this method searches the face of the point over all the faces, and is not used for rendering.
+     *
+     * @param point Point on the surface of the mesh
+     * @return The normal of the closest face to the point (Vector)
+     * @throws IllegalArgumentException if the point is not on any face of the mesh
+     */
+    @Override
+    public Vector getNormal(Point3D point) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        int closest = -1;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int face = 0; face < getFacesCount(); ++face) {
+            Vector n;
+            try {
+                n = faceNormal(face);
+            } catch (IllegalArgumentException e) { // A degenerate face (zero area)
+                continue;
+            }
+            int i0 = 3 * _faces[3 * face];
+            double distance = Math.abs(n.getX() * (x - _vertices[i0]) + n.getY() * (y - _vertices[i0 + 1])
+                    + n.getZ() * (z - _vertices[i0 + 2]));
+            if (distance < closestDistance && contains(face, x, y, z)) {
+                closestDistance = distance;
+                closest = face;
+            }
+        }
+        if (closest < 0 || !isZero(closestDistance))
+            throw new IllegalArgumentException("The point is not on the mesh");
+        return faceNormal(closest);
+    }
+
+    /**
+     * Return the box bounding all the faces of the mesh
+     *
+     * @return The bounding box (BoundingBox)
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return _box;
+    }
+
+    /**
+     * Find the intersection points of the ray and the mesh
+     *
+     * @param ray The light ray
+     * @return List of intersection GeoPoint between the ray and the faces, null if there are none
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray) {
+        double[] slab = BoundingBox.slabData(ray);
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        List<GeoPoint> result = null;
+
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!_tree.intersects(node, slab, Double.POSITIVE_INFINITY)) continue;
+
+            if (_tree.isLeaf(node)) {
+                int end = _tree._offset[node] + _tree._count[node];
+                for (int face = _tree._offset[node]; face < end; ++face) {
+                    double t = _triangles.intersect(face, slab[0], slab[1], slab[2], dx, dy, dz);
+                    if (t != Triangle.MISS) {
+                        if (result == null) result = new LinkedList<>();
+                        result.add(new GeoPoint(this, ray.getPoint(t), t, faceNormal(face)));
+                    }
+                }
+            } else {
+                stack[top++] = _tree._offset[node]; // right child
+                stack[top++] = node + 1; // left child
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the closest intersection of the ray with the mesh which is closer than the receiving distance.
+     * Only the closest face gets an intersection point, the other faces are checked by their distance only.
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The closest intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double[] slab = BoundingBox.slabData(ray);
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        int closest = -1;
+        double[] distance = new double[1];
+
+        // Go down through the crossed nodes from the near child to the far one,
+        // so the distance is shrunk as early as possible
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!_tree.intersects(node, slab, maxDistance)) continue;
+
+            if (_tree.isLeaf(node)) {
+                int start = _tree._offset[node];
+                int face = _triangles.closest(start, start + _tree._count[node],
+                        slab[0], slab[1], slab[2], dx, dy, dz, maxDistance, distance);
+                if (face >= 0) {
+                    maxDistance = distance[0];
+                    closest = face;
+                }
+            } else if (slab[3 + _tree._axis[node]] < 0) { // The ray goes to the negative side of the split axis
+                stack[top++] = node + 1; // left child (far)
+                stack[top++] = _tree._offset[node]; // right child (near)
+            } else {
+                stack[top++] = _tree._offset[node]; // right child (far)
+                stack[top++] = node + 1; // left child (near)
+            }
+        }
+        return closest < 0 ? null : new GeoPoint(this, ray.getPoint(maxDistance), maxDistance, faceNormal(closest));
+    }
+
+    /**
+     * Find the closest intersections of a packet of rays with the mesh.
+     * The rays of the packet go down the tree together: a node is visited if any of the rays crosses
+     * its bounds, and the faces of a leaf are intersected with the rays which cross the leaf.
+     *
+     * @param rays         The rays of the packet (a null ray is skipped)
+     * @param maxDistances The maximal distance of each ray from its head (updated)
+     * @param closest      The closest intersection of each ray so far (updated)
+     */
+    @Override
+    public void findClosestGeoIntersections(Ray[] rays, double[] maxDistances, GeoPoint[] closest) {
+        int n = rays.length;
+        double[][] slabs = new double[n][];
+        // The near child is chosen by the direction of the first ray, the rays of a packet are coherent
+        double[] first = null;
+        for (int i = 0; i < n; ++i)
+            if (rays[i] != null) {
+                slabs[i] = BoundingBox.slabData(rays[i]);
+                if (first == null) first = slabs[i];
+            }
+        if (first == null) return;
+
+        // The closest face of each ray gets its intersection point at the end only
+        int[] closestFace = new int[n];
+        Arrays.fill(closestFace, -1);
+        double[] distance = new double[1];
+
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!_tree.intersectsAny(node, slabs, maxDistances)) continue;
+
+            if (_tree.isLeaf(node)) {
+                int start = _tree._offset[node], end = start + _tree._count[node];
+                for (int i = 0; i < n; ++i) {
+                    if (slabs[i] == null || !_tree.intersects(node, slabs[i], maxDistances[i])) continue;
+                    Vector dir = rays[i].getDir();
+                    int face = _triangles.closest(start, end, slabs[i][0], slabs[i][1], slabs[i][2],
+                            dir.getX(), dir.getY(), dir.getZ(), maxDistances[i], distance);
+                    if (face >= 0) {
+                        maxDistances[i] = distance[0];
+                        closestFace[i] = face;
+                    }
+                }
+            } else if (first[3 + _tree._axis[node]] < 0) { // The rays go to the negative side of the split axis
+                stack[top++] = node + 1; // left child (far)
+                stack[top++] = _tree._offset[node]; // right child (near)
+            } else {
+                stack[top++] = _tree._offset[node]; // right child (far)
+                stack[top++] = node + 1; // left child (near)
+            }
+        }
+
+        for (int i = 0; i < n; ++i)
+            if (closestFace[i] >= 0)
+                closest[i] = new GeoPoint(this, rays[i].getPoint(maxDistances[i]), maxDistances[i],
+                        faceNormal(closestFace[i]));
+    }
+
+    /**
+     * Calculate the transparency of the mesh along the ray up to the receiving distance.
+     * All the faces have the transparency of the mesh material, so each crossed face multiplies
+     * the transparency by it, and the search stops as soon as the ray is blocked.
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        double kT = getMaterial()._kT;
+        double[] slab = BoundingBox.slabData(ray);
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        int[] stack = new int[BVH.MAX_DEPTH + 1];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!_tree.intersects(node, slab, maxDistance)) continue;
+
+            if (_tree.isLeaf(node)) {
+                // Only the faces between the head of the ray and the distance attenuate the light
+                int start = _tree._offset[node];
+                int hits = _triangles.count(start, start + _tree._count[node],
+                        slab[0], slab[1], slab[2], dx, dy, dz, maxDistance);
+                for (int i = 0; i < hits; ++i) {
+                    ktr *= kT;
+                    if (ktr < minTransparency) return 0.0;
+                }
+            } else {
+                stack[top++] = _tree._offset[node]; // right child
+                stack[top++] = node + 1; // left child
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Check whether the point is inside the face (or on its border), assuming it is on the face plane
+     *
+     * @param face The face index
+     * @param x    The x value of the point
+     * @param y    The y value of the point
+     * @param z    The z value of the point
+     * @return True if the point is inside the face
+     */
+    private boolean contains(int face, double x, double y, double z) {
+        double[] v = _vertices;
+        int i0 = 3 * _faces[3 * face], i1 = 3 * _faces[3 * face + 1], i2 = 3 * _faces[3 * face + 2];
+        double e1x = v[i1] - v[i0], e1y = v[i1 + 1] - v[i0 + 1], e1z = v[i1 + 2] - v[i0 + 2];
+        double e2x = v[i2] - v[i0], e2y = v[i2 + 1] - v[i0 + 1], e2z = v[i2 + 2] - v[i0 + 2];
+        double sx = x - v[i0], sy = y - v[i0 + 1], sz = z - v[i0 + 2];
+
+        // Solve the barycentric coordinates by the dot products of the edges
+        double d11 = e1x * e1x + e1y * e1y + e1z * e1z;
+        double d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+        double d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+        double s1 = sx * e1x + sy * e1y + sz * e1z;
+        double s2 = sx * e2x + sy * e2y + sz * e2z;
+        double denominator = d11 * d22 - d12 * d12;
+        double u = (d22 * s1 - d12 * s2) / denominator;
+        double w = (d11 * s2 - d12 * s1) / denominator;
+        return alignZero(u) >= 0 && alignZero(w) >= 0 && alignZero(u + w - 1) <= 0;
+    }
+
+    /**
+     * Calculate the normal of a face (by the order of its vertices)
+     *
+     * @param face The face index
+     * @return The normalized normal (Vector)
+     * @throws IllegalArgumentException if the face is degenerate (zero area)
+     */
+    private Vector faceNormal(int face) {
+        double[] v = _vertices;
+        int i0 = 3 * _faces[3 * face], i1 = 3 * _faces[3 * face + 1], i2 = 3 * _faces[3 * face + 2];
+        double e1x = v[i1] - v[i0], e1y = v[i1 + 1] - v[i0 + 1], e1z = v[i1 + 2] - v[i0 + 2];
+        double e2x = v[i2] - v[i0], e2y = v[i2 + 1] - v[i0 + 1], e2z = v[i2 + 2] - v[i0 + 2];
+        return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+    }
+
+    @Override
+    public String toString() {
+        return "Mesh{" +
+                "vertices=" + _vertices.length / 3 +
+                ", faces=" + getFacesCount() +
+                '}';
+    }
+}
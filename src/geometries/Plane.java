@@ -42,11 +42,11 @@ public class Plane extends Geometry {
         // and cross Product them. Eventually we normalize the normal.
 
         // Calculate the 2 vectors
-        Vector v1 = new Vector(p1.subtract(p0).getHead());
-        Vector v2 = new Vector(p2.subtract(p0).getHead());
+        Vector v1 = p1.subtract(p0);
+        Vector v2 = p2.subtract(p0);
 
         // Calculate the normal and normalize him
-        _normal = new Vector(v1.crossProduct(v2).normalize().getHead());
+        _normal = v1.crossProduct(v2).normalize();
     }
 
     /**
@@ -94,6 +94,16 @@ public class Plane extends Geometry {
         return _normal;
     }
 
+    /**
+     * Return the box bounding the plane - the plane is not bounded
+     *
+     * @return {@link BoundingBox#INFINITE}
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * Find the intersection point of the ray and the plane
      *
@@ -136,7 +146,7 @@ public class Plane extends Geometry {
                 point.getY(),
                 point .getZ());
 
-        return List.of(new GeoPoint(this, p)); // List of intersection GeoPoint
+        return List.of(new GeoPoint(this, p, t)); // List of intersection GeoPoint
     }
 
     @Override
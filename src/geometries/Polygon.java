@@ -4,7 +4,6 @@ import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -26,6 +25,24 @@ public class Polygon extends Geometry {
      */
     protected Plane plane;
 
+    /**
+     * The value returned by the intersection calculation for no intersection
+     */
+    private static final double MISS = Double.POSITIVE_INFINITY;
+
+    /**
+     * The two axes the polygon is projected on (0 - x, 1 - y, 2 - z): the axes other than the dominant axis
+     * of its normal, so the projection keeps the most of its area
+     */
+    private final int _uAxis, _vAxis;
+
+    /**
+     * The projected edges equations, 3 values (a, b, c) per edge: a * u + b * v + c is the distance of
+     * a projected point (u, v) from the projected edge line, positive inside the polygon.
+     * Null if the polygon is intersected by its own calculation (a triangle)
+     */
+    private final double[] _edges;
+
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
      * path. The polygon must be convex.
@@ -48,6 +65,18 @@ public class Polygon extends Geometry {
      *                                  </ul>
      */
     public Polygon(Point3D... vertices) {
+        this(true, vertices);
+    }
+
+    /**
+     * Polygon constructor based on vertices list (see {@link #Polygon(Point3D...)}),
+     * for a subclass which may intersect the polygon by its own calculation
+     *
+     * @param projectEdges True to prepare the projected edges for the intersection calculation of the polygon
+     * @param vertices     list of vertices according to their order by edge path
+     * @throws IllegalArgumentException in any case of illegal combination of vertices
+     */
+    protected Polygon(boolean projectEdges, Point3D... vertices) {
         if (vertices.length < 3)
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
@@ -55,11 +84,18 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
+        Vector n = plane.getNormal();
+
+        // Project on the plane of the two axes other than the dominant axis of the normal
+        double[] normal = {Math.abs(n.getX()), Math.abs(n.getY()), Math.abs(n.getZ())};
+        int dominant = normal[0] >= normal[1] ? (normal[0] >= normal[2] ? 0 : 2) : (normal[1] >= normal[2] ? 1 : 2);
+        _uAxis = (dominant + 1) % 3;
+        _vAxis = (dominant + 2) % 3;
+        _edges = projectEdges ? projectEdges(vertices) : null;
+
         if (vertices.length == 3)
             return; // no need for more tests for a Triangle
 
-        Vector n = plane.getNormal();
-
         // Subtracting any subsequent points will throw an IllegalArgumentException
         // because of Zero Vector if they are in the same point
         Vector edge1 = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -88,67 +124,157 @@ public class Polygon extends Geometry {
     }
 
     /**
-     * Return the normal to the polygon
+     * Return the normal to the polygon - the normal of its plane, which is the same at every point of it
      *
      * @param point Point on the surface of the geometry shape
      * @return The normal
      */
     @Override
     public Vector getNormal(Point3D point) {
-        Vector v1 = point.subtract(vertices.get(0));
-        Vector v2 = point.subtract(vertices.get(1));
-
-        Vector v3 = v1.crossProduct(v2);
+        return plane.getNormal();
+    }
 
-        return v3.normalize();
+    /**
+     * Return the box bounding the polygon's vertices
+     *
+     * @return The bounding box (BoundingBox)
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(vertices.toArray(new Point3D[0]));
     }
 
     /**
-     * Return list of intersection GeoPoint
+     * Return list of intersection GeoPoint.
+     * The edges and the vertices are not part of the polygon (as in {@link Triangle}),
+     * so a ray through them doesn't intersect it.
      *
      * @param ray The light ray
      * @return List of intersection GeoPoint
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray) {
-        List<GeoPoint> planeIntersectionPoint = plane.findGeoIntersections(ray);
-        if (planeIntersectionPoint == null) return null;
+        double t = intersect(ray);
+        return t == MISS ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
+
+    /**
+     * Find the intersection point of the ray and the polygon if it is closer than the receiving distance
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        return t < maxDistance ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
 
-        Point3D intersectionPoint = planeIntersectionPoint.get(0)._point;
+    /**
+     * Calculate the transparency of the polygon along the ray up to the receiving distance
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        double t = intersect(ray);
+        if (t == MISS || alignZero(t - maxDistance) > 0) return ktr;
 
-        Point3D p0 = ray.getP0();
-        Vector v = ray.getDir();
+        ktr *= getMaterial()._kT;
+        return ktr < minTransparency ? 0.0 : ktr;
+    }
 
-        // Create the polygon
-        List<Vector> vectors = new LinkedList<>();
-        for (Point3D ver : vertices) {
-            vectors.add(ver.subtract(p0));
-        }
+    /**
+     * Intersect the ray with the plane of the polygon (as in {@link Plane}) and check the intersection point
+     * against the projected edges, without creating any vector or list.
+     * The edges and the vertices are not part of the polygon.
+     *
+     * @param ray The light ray
+     * @return The distance of the intersection from the head of the ray, {@link #MISS} if there is no intersection
+     */
+    private double intersect(Ray ray) {
+        Point3D head = ray.getP0();
+        Vector dir = ray.getDir();
+        Vector n = plane._normal;
 
-        // Calculate the normals
-        List<Vector> normalVectors = new LinkedList<>();
-        for (int i = 1; i < vectors.size(); i++) {
-            normalVectors.add(vectors.get(i - 1).crossProduct(vectors.get(i)).normalize());
-        }
-        int index = vectors.size();
-        normalVectors.add(vectors.get(index - 1).crossProduct(vectors.get(0)).normalize());
+        // The vector from the head of the ray to the point of the plane, zero if the ray starts at the point
+        double qx = alignZero(plane._p0.getX() - head.getX());
+        double qy = alignZero(plane._p0.getY() - head.getY());
+        double qz = alignZero(plane._p0.getZ() - head.getZ());
+        if (qx == 0 && qy == 0 && qz == 0) return MISS;
+
+        // t = (N*(Q0-P0))/(N*v), no intersection if the ray starts at the plane or is parallel to it
+        double numerator = n.getX() * qx + n.getY() * qy + n.getZ() * qz;
+        double denominator = n.dotProduct(dir);
+        if (isZero(numerator) || isZero(denominator)) return MISS;
+        double t = alignZero(numerator / denominator);
+        if (t < 0) return MISS;
+
+        // The projected intersection point must be strictly inside all the projected edges
+        double u = coordinate(head, _uAxis) + coordinate(dir, _uAxis) * t;
+        double v = coordinate(head, _vAxis) + coordinate(dir, _vAxis) * t;
+        for (int i = 0; i < _edges.length; i += 3)
+            if (alignZero(_edges[i] * u + _edges[i + 1] * v + _edges[i + 2]) <= 0) return MISS;
+        return t;
+    }
+
+    /**
+     * Calculate the projected edges equations (see {@link #_edges}) of the receiving vertices
+     *
+     * @param vertices The vertices of the polygon, ordered by edge path
+     * @return The edges equations (double[])
+     */
+    private double[] projectEdges(Point3D[] vertices) {
+        int count = vertices.length;
 
-        // Collect the signs
-        List<Double> sign = new LinkedList<>();
-        for (Vector normalVector : normalVectors) {
-            sign.add(alignZero(v.dotProduct(normalVector)));
+        // The sign of the projected area tells the direction of the path in the projection
+        double area = 0;
+        for (int i = 0; i < count; ++i) {
+            Point3D p1 = vertices[i], p2 = vertices[(i + 1) % count];
+            area += coordinate(p1, _uAxis) * coordinate(p2, _vAxis) - coordinate(p2, _uAxis) * coordinate(p1, _vAxis);
         }
+        double direction = area > 0 ? 1 : -1;
+
+        double[] edges = new double[3 * count];
+        for (int i = 0; i < count; ++i) {
+            Point3D p1 = vertices[i], p2 = vertices[(i + 1) % count];
+            double u1 = coordinate(p1, _uAxis), v1 = coordinate(p1, _vAxis);
+            double eu = coordinate(p2, _uAxis) - u1, ev = coordinate(p2, _vAxis) - v1;
 
-        // Compare between the signs
-        boolean withTheSameSign = true;
-        for (int i = 1; i < sign.size(); i++) {
-            if ((sign.get(i - 1) > 0 && sign.get(i) < 0) || (sign.get(i - 1) < 0 && sign.get(i) > 0)) {
-                withTheSameSign = false;
-                break;
-            }
+            // The normal of the edge line (normalized, pointing inside the polygon)
+            double length = Math.sqrt(eu * eu + ev * ev) * direction;
+            double a = -ev / length, b = eu / length;
+            edges[3 * i] = a;
+            edges[3 * i + 1] = b;
+            edges[3 * i + 2] = -(a * u1 + b * v1);
         }
+        return edges;
+    }
 
-        if (withTheSameSign) return List.of(new GeoPoint(this, intersectionPoint));
-        else return null;
+    /**
+     * Return a coordinate of a point by its axis
+     *
+     * @param point The point
+     * @param axis  The axis (0 - x, 1 - y, 2 - z)
+     * @return The coordinate value (double)
+     */
+    private static double coordinate(Point3D point, int axis) {
+        return axis == 0 ? point.getX() : axis == 1 ? point.getY() : point.getZ();
+    }
+
+    /**
+     * Return a coordinate of a vector by its axis
+     *
+     * @param vector The vector
+     * @param axis   The axis (0 - x, 1 - y, 2 - z)
+     * @return The coordinate value (double)
+     */
+    private static double coordinate(Vector vector, int axis) {
+        return axis == 0 ? vector.getX() : axis == 1 ? vector.getY() : vector.getZ();
     }
 }
@@ -6,6 +6,8 @@ import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+
 /**
  * Sphere class representing three-dimensional sphere in 3D Cartesian coordinate
  * system
@@ -24,6 +26,10 @@ public class Sphere extends Geometry {
      */
     double _radius;
 
+    /**
+     * The squared radius of the sphere
+     */
+    private final double _radiusSquared;
 
     /**
      * c-tor initialize the fields with the receiving values
@@ -34,6 +40,7 @@ public class Sphere extends Geometry {
     public Sphere(Point3D center, double radius) {
         _center = center;
         _radius = radius;
+        _radiusSquared = radius * radius;
     }
 
     /**
@@ -62,65 +69,107 @@ public class Sphere extends Geometry {
      */
     @Override
     public Vector getNormal(Point3D point) {
-        Vector v = new Vector(point.subtract(_center).getHead());
+        Vector v = point.subtract(_center);
         return v.normalize(); // return the normalize normal vector
     }
 
     /**
-     * Find the first intersection point of the ray and the sphere
+     * Return the box bounding the sphere (the center +/- the radius on each axis)
+     *
+     * @return The bounding box (BoundingBox)
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(_center.getX() - _radius, _center.getY() - _radius, _center.getZ() - _radius,
+                _center.getX() + _radius, _center.getY() + _radius, _center.getZ() + _radius);
+    }
+
+    /**
+     * Find the intersection points of the ray and the sphere
      *
      * @param ray The light ray
      * @return List of intersection GeoPoints between the received ray and the sphere
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray) {
+        double[] t = new double[2];
+        int count = intersect(ray, t);
 
-        Point3D p0 = ray.getP0(); // The head of the ray
-        Vector V = ray.getDir(); // The direction of the ray
-        Point3D O = _center; // The center of the sphere
+        // If there have 2 intersection points (the ray cross the sphere at two points)
+        if (count == 2)
+            return List.of(new GeoPoint(this, ray.getPoint(t[0]), t[0]), new GeoPoint(this, ray.getPoint(t[1]), t[1]));
 
-        // If p0 is on the center, calculate with line parametric representation
-        // (the direction vector already normalized)
-        if (O.equals(p0)) {
-            return List.of(new GeoPoint(this, p0.add(V.scale(_radius))));
-        }
-        // Calculate the intersection point by Pythagoras statement.
-        Vector U = O.subtract(p0);
-        double tm = V.dotProduct(U);
+        // If there have only one intersection point (the ray starts inside the sphere)
+        if (count == 1) return List.of(new GeoPoint(this, ray.getPoint(t[0]), t[0]));
+
+        return null; // If there have not any intersection point
+    }
 
-        // The distance between the center point of the sphere to the ray (by creating 90 degrees)
-        double d = Math.sqrt(U.lengthSquared() - tm * tm);
+    /**
+     * Find the closest intersection point of the ray and the sphere if it is closer than the receiving distance.
+     * Only the point of the nearest valid intersection is calculated.
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double[] t = new double[2];
+        return intersect(ray, t) > 0 && t[0] < maxDistance ? new GeoPoint(this, ray.getPoint(t[0]), t[0]) : null;
+    }
 
-        // If the distance d is bigger then the radius, the ray go next to the sphere (outside)
-        // which mean 0 intersection point
-        if (d >= _radius) {
-            return null;
+    /**
+     * Calculate the transparency of the sphere along the ray up to the receiving distance,
+     * the calculation stops at the first intersection which blocks the ray
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        double[] t = new double[2];
+        int count = intersect(ray, t);
+        for (int i = 0; i < count && alignZero(t[i] - maxDistance) <= 0; ++i) {
+            ktr *= getMaterial()._kT;
+            if (ktr < minTransparency) return 0.0;
         }
+        return ktr;
+    }
 
-        // Calculate the intersection points (from both sides)
-        double th = Math.sqrt(_radius * _radius - d * d);
-        double t1 = tm - th;
-        double t2 = tm + th;
+    /**
+     * Intersect the ray with the sphere.
+     * With U the vector from the head of the ray to the center and tm its projection on the ray direction,
+     * the points of the ray at tm +/- th are on the sphere, where th^2 = r^2 - (|U|^2 - tm^2) is the
+     * discriminant of the equation. A tangent ray doesn't intersect the sphere.
+     *
+     * @param ray The light ray
+     * @param t   Array for the distances of the intersections from the head of the ray, ordered by the distance
+     * @return The number of the intersections (int)
+     */
+    private int intersect(Ray ray, double[] t) {
+        Point3D p0 = ray.getP0(); // The head of the ray
+        Vector v = ray.getDir(); // The direction of the ray
 
-        // If there have 2 intersection points (the ray cross the sphere at two points)
-        if (t1 > 0 && t2 > 0) {
-            GeoPoint gp1 = new GeoPoint(this, ray.getPoint(t1));
-            GeoPoint gp2 = new GeoPoint(this, ray.getPoint(t2));
-            return List.of(gp1, gp2); // List of the two intersection points
-        }
+        // U = O - p0, and its projection on the ray direction
+        double ux = _center.getX() - p0.getX(), uy = _center.getY() - p0.getY(), uz = _center.getZ() - p0.getZ();
+        double tm = v.getX() * ux + v.getY() * uy + v.getZ() * uz;
 
-        // If there have only one intersection point (the closest side to the ray)
-        if (t1 > 0) {
-            GeoPoint gp1 = new GeoPoint(this, ray.getPoint(t1));
-            return List.of(gp1); // List of the intersection point
-        }
+        // If the ray line is not closer to the center than the radius, the ray goes next to the sphere (outside)
+        double thSquared = _radiusSquared - (ux * ux + uy * uy + uz * uz - tm * tm);
+        if (thSquared <= 0) return 0;
 
-        // If there have only one intersection point (the farther side to the ray)
-        if (t2 > 0) {
-            GeoPoint gp2 = new GeoPoint(this, ray.getPoint(t2));
-            return List.of(gp2); // List of the intersection point
-        }
-        return null; // If there have not any intersection point
+        // Calculate the intersection points (from both sides), only the points after the head of the ray
+        double th = Math.sqrt(thSquared);
+        double t1 = tm - th;
+        double t2 = tm + th;
+        int count = 0;
+        if (t1 > 0) t[count++] = t1;
+        if (t2 > 0) t[count++] = t2;
+        return count;
     }
 
     @Override
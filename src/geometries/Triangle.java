@@ -7,6 +7,7 @@ import primitives.Vector;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Triangle class representing a two-dimensional Triangle in 3D Cartesian coordinate
@@ -17,28 +18,45 @@ import static primitives.Util.alignZero;
 public class Triangle extends Polygon {
 
     /**
-     * c-tor initiate the vertices with the receiving list of vertices.
-     *
-     * @param vertices Point3D[]
+     * The value returned by the intersection calculation for no intersection
      */
-    public Triangle(Point3D... vertices) {
-        super(vertices);
-    }
+    static final double MISS = Double.POSITIVE_INFINITY;
 
     /**
-     * Get the normal of the plane on a specific point
-     *
-     * @param point Point on the surface of the geometry shape
-     * @return The normal on the receiving point
+     * The first vertex values
      */
-    @Override
-    public Vector getNormal(Point3D point) {
+    private final double _x0, _y0, _z0;
+
+    /**
+     * The edge from the first vertex to the second one
+     */
+    private final double _e1x, _e1y, _e1z;
 
-        Vector v1 = point.subtract(plane._p0);
-        Vector v2 = v1.crossProduct(plane._normal);
-        Vector v3 = v1.subtract(v2);
+    /**
+     * The edge from the first vertex to the third one
+     */
+    private final double _e2x, _e2y, _e2z;
 
-        return v3.crossProduct(v1).normalize();
+    /**
+     * c-tor initiate the vertices with the receiving list of vertices.
+     *
+     * @param vertices Point3D[]
+     */
+    public Triangle(Point3D... vertices) {
+        // The triangle is intersected by its own calculation, without the projected edges of the polygon
+        super(false, vertices);
+
+        // Keep the first vertex and the edges from it for the intersection calculation
+        Point3D p0 = vertices[0], p1 = vertices[1], p2 = vertices[2];
+        _x0 = p0.getX();
+        _y0 = p0.getY();
+        _z0 = p0.getZ();
+        _e1x = p1.getX() - _x0;
+        _e1y = p1.getY() - _y0;
+        _e1z = p1.getZ() - _z0;
+        _e2x = p2.getX() - _x0;
+        _e2y = p2.getY() - _y0;
+        _e2z = p2.getZ() - _z0;
     }
 
     /**
@@ -49,40 +67,100 @@ public class Triangle extends Polygon {
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray) {
+        double t = intersect(ray);
+        return t == MISS ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
 
-        List<GeoPoint> intersectionsList = plane.findGeoIntersections(ray);
-
-        // Check if the ray intersect the containing plane of the triangle
-        // If not return null (sure not intersect)
-        if (intersectionsList == null) {
-            return null;
-        }
-
-        // Create the triangle
-        Point3D p0 = ray.getP0();
-        Vector v1 = vertices.get(0).subtract(p0);
-        Vector v2 = vertices.get(1).subtract(p0);
-        Vector v3 = vertices.get(2).subtract(p0);
-
-        // Calculate the normals
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
+    /**
+     * Find the intersection point of the ray and the triangle if it is closer than the receiving distance
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double t = intersect(ray);
+        return t < maxDistance ? new GeoPoint(this, ray.getPoint(t), t) : null;
+    }
 
-        Vector v = ray.getDir();
+    /**
+     * Calculate the transparency of the triangle along the ray up to the receiving distance
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        double t = intersect(ray);
+        if (t == MISS || alignZero(t - maxDistance) > 0) return ktr;
 
-        double vn1 = alignZero(v.dotProduct(n1));
-        double vn2 = alignZero(v.dotProduct(n2));
-        double vn3 = alignZero(v.dotProduct(n3));
+        ktr *= getMaterial()._kT;
+        return ktr < minTransparency ? 0.0 : ktr;
+    }
 
-        // If all in the same direction the ray intersect the triangle
-        if ((vn1 > 0 && vn2 > 0 && vn3 > 0) || (vn1 < 0 && vn2 < 0 && vn3 < 0)) {
+    /**
+     * Intersect the ray with the triangle by its saved first vertex and edges (see {@link #intersect(double, double,
+     * double, double, double, double, double, double, double, double, double, double, double, double, double)})
+     *
+     * @param ray The light ray
+     * @return The distance of the intersection from the head of the ray, {@link #MISS} if there is no intersection
+     */
+    private double intersect(Ray ray) {
+        Point3D head = ray.getP0();
+        Vector dir = ray.getDir();
+        return intersect(_x0, _y0, _z0, _e1x, _e1y, _e1z, _e2x, _e2y, _e2z,
+                head.getX(), head.getY(), head.getZ(), dir.getX(), dir.getY(), dir.getZ());
+    }
 
-            // find the intersection point and return it as a list of GeoPoint
-            return List.of(new GeoPoint(this, intersectionsList.get(0)._point));
-        }
-        // If the ray not intersect the triangle
-        return null;
+    /**
+     * Intersect the ray with a triangle by the Möller–Trumbore algorithm: the barycentric coordinates
+     * of the intersection point and its distance are calculated together from the edges,
+     * without intersecting the plane first and without creating any vector.
+     * The edges and the vertices are not part of the triangle.
+     * The triangles of {@link Triangle} and the faces of {@link Mesh} are intersected by this calculation.
+     *
+     * @param x0  The x value of the first vertex
+     * @param y0  The y value of the first vertex
+     * @param z0  The z value of the first vertex
+     * @param e1x The x value of the edge from the first vertex to the second one
+     * @param e1y The y value of the edge from the first vertex to the second one
+     * @param e1z The z value of the edge from the first vertex to the second one
+     * @param e2x The x value of the edge from the first vertex to the third one
+     * @param e2y The y value of the edge from the first vertex to the third one
+     * @param e2z The z value of the edge from the first vertex to the third one
+     * @param ox  The x value of the head of the ray
+     * @param oy  The y value of the head of the ray
+     * @param oz  The z value of the head of the ray
+     * @param dx  The x value of the ray direction
+     * @param dy  The y value of the ray direction
+     * @param dz  The z value of the ray direction
+     * @return The distance of the intersection from the head of the ray, {@link #MISS} if there is no intersection
+     */
+    static double intersect(double x0, double y0, double z0,
+                            double e1x, double e1y, double e1z, double e2x, double e2y, double e2z,
+                            double ox, double oy, double oz, double dx, double dy, double dz) {
+        // p = dir x e2, the determinant is zero if the ray is parallel to the triangle
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) return MISS;
+        double inv = 1 / det;
+
+        // The barycentric coordinates of the intersection point (u for the second vertex, w for the third)
+        double sx = ox - x0, sy = oy - y0, sz = oz - z0;
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (alignZero(u) <= 0 || alignZero(u - 1) >= 0) return MISS;
+
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double w = (dx * qx + dy * qy + dz * qz) * inv;
+        if (alignZero(w) <= 0 || alignZero(u + w - 1) >= 0) return MISS;
+
+        // The intersection must be in front of the head of the ray
+        double t = (e2x * qx + e2y * qy + e2z * qz) * inv;
+        return alignZero(t) > 0 ? t : MISS;
     }
 
     @Override
@@ -0,0 +1,252 @@
+package geometries;
+
+import java.util.Arrays;
+
+import static primitives.Util.alignZero;
+
+/**
+ * Batch of triangles in structure of arrays layout (each value of all the triangles in its own array),
+ * for intersecting one ray with a range of triangles at once (the triangles of a leaf of a {@link BVH}).
+ * Each triangle is kept as its first vertex and the two edges from it (as in {@link Triangle}).
+ * A range is intersected by a {@link Kernel}: the vector (SIMD) kernel when the jdk.incubator.vector module
+ * is in the boot layer and the vector kernel class was compiled (it is compiled separately, with the module),
+ * otherwise the scalar kernel, which intersects the triangles one by one by {@link Triangle}'s calculation.
+ * Both kernels give the same results.
+ * A slot which was not set is never intersected.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+final class TriangleBatch {
+
+    /**
+     * The value of the distance for no intersection
+     */
+    static final double MISS = Triangle.MISS;
+
+    /**
+     * Kernel is the intersection calculation of one ray with a range of slots of a batch
+     */
+    interface Kernel {
+        /**
+         * Find the closest intersection of the ray with the triangles of a range of slots,
+         * which is closer than the receiving distance (the first slot of the closest ones)
+         *
+         * @param batch       The batch
+         * @param start       The first slot of the range
+         * @param end         The slot after the last one of the range
+         * @param ox          The x value of the head of the ray
+         * @param oy          The y value of the head of the ray
+         * @param oz          The z value of the head of the ray
+         * @param dx          The x value of the ray direction
+         * @param dy          The y value of the ray direction
+         * @param dz          The z value of the ray direction
+         * @param maxDistance The maximal distance from the head of the ray
+         * @param distance    Array for the distance of the found intersection (in its first cell)
+         * @return The slot of the closest intersected triangle, -1 if there is none closer than maxDistance
+         */
+        int closest(TriangleBatch batch, int start, int end, double ox, double oy, double oz,
+                    double dx, double dy, double dz, double maxDistance, double[] distance);
+
+        /**
+         * Count the intersections of the ray with the triangles of a range of slots,
+         * which are not farther than the receiving distance
+         *
+         * @param batch       The batch
+         * @param start       The first slot of the range
+         * @param end         The slot after the last one of the range
+         * @param ox          The x value of the head of the ray
+         * @param oy          The y value of the head of the ray
+         * @param oz          The z value of the head of the ray
+         * @param dx          The x value of the ray direction
+         * @param dy          The y value of the ray direction
+         * @param dz          The z value of the ray direction
+         * @param maxDistance The maximal distance from the head of the ray
+         * @return The number of the intersected triangles (int)
+         */
+        int count(TriangleBatch batch, int start, int end, double ox, double oy, double oz,
+                  double dx, double dy, double dz, double maxDistance);
+    }
+
+    /**
+     * The scalar kernel, the triangles are intersected one by one
+     */
+    static final Kernel SCALAR = new Kernel() {
+        @Override
+        public int closest(TriangleBatch batch, int start, int end, double ox, double oy, double oz,
+                           double dx, double dy, double dz, double maxDistance, double[] distance) {
+            int closest = -1;
+            for (int i = start; i < end; ++i) {
+                double t = batch.intersect(i, ox, oy, oz, dx, dy, dz);
+                if (t < maxDistance) {
+                    maxDistance = t;
+                    closest = i;
+                }
+            }
+            distance[0] = maxDistance;
+            return closest;
+        }
+
+        @Override
+        public int count(TriangleBatch batch, int start, int end, double ox, double oy, double oz,
+                         double dx, double dy, double dz, double maxDistance) {
+            int count = 0;
+            for (int i = start; i < end; ++i) {
+                double t = batch.intersect(i, ox, oy, oz, dx, dy, dz);
+                if (t != MISS && alignZero(t - maxDistance) <= 0) ++count;
+            }
+            return count;
+        }
+    };
+
+    /**
+     * The name of the vector kernel class (compiled separately, with the jdk.incubator.vector module)
+     */
+    private static final String VECTOR_KERNEL = "geometries.VectorTriangleKernel";
+
+    /**
+     * The kernel of all the batches, chosen once
+     */
+    static final Kernel KERNEL = selectKernel();
+
+    /**
+     * The first vertices values
+     */
+    final double[] _x0, _y0, _z0;
+
+    /**
+     * The edges from the first vertices to the second ones
+     */
+    final double[] _e1x, _e1y, _e1z;
+
+    /**
+     * The edges from the first vertices to the third ones
+     */
+    final double[] _e2x, _e2y, _e2z;
+
+    /**
+     * c-tor allocate the batch with empty slots (NaN values, never intersected)
+     *
+     * @param size The number of triangles
+     */
+    TriangleBatch(int size) {
+        _x0 = nan(size);
+        _y0 = nan(size);
+        _z0 = nan(size);
+        _e1x = nan(size);
+        _e1y = nan(size);
+        _e1z = nan(size);
+        _e2x = nan(size);
+        _e2y = nan(size);
+        _e2z = nan(size);
+    }
+
+    /**
+     * Set the triangle of a slot by its vertices values
+     *
+     * @param i  The slot index
+     * @param x0 The x value of the first vertex
+     * @param y0 The y value of the first vertex
+     * @param z0 The z value of the first vertex
+     * @param x1 The x value of the second vertex
+     * @param y1 The y value of the second vertex
+     * @param z1 The z value of the second vertex
+     * @param x2 The x value of the third vertex
+     * @param y2 The y value of the third vertex
+     * @param z2 The z value of the third vertex
+     */
+    void set(int i, double x0, double y0, double z0, double x1, double y1, double z1, double x2, double y2, double z2) {
+        _x0[i] = x0;
+        _y0[i] = y0;
+        _z0[i] = z0;
+        _e1x[i] = x1 - x0;
+        _e1y[i] = y1 - y0;
+        _e1z[i] = z1 - z0;
+        _e2x[i] = x2 - x0;
+        _e2y[i] = y2 - y0;
+        _e2z[i] = z2 - z0;
+    }
+
+    /**
+     * Intersect the ray with the triangle of one slot (by {@link Triangle}'s calculation)
+     *
+     * @param i  The slot index
+     * @param ox The x value of the head of the ray
+     * @param oy The y value of the head of the ray
+     * @param oz The z value of the head of the ray
+     * @param dx The x value of the ray direction
+     * @param dy The y value of the ray direction
+     * @param dz The z value of the ray direction
+     * @return The distance of the intersection from the head of the ray, {@link #MISS} if there is no intersection
+     */
+    double intersect(int i, double ox, double oy, double oz, double dx, double dy, double dz) {
+        return Triangle.intersect(_x0[i], _y0[i], _z0[i], _e1x[i], _e1y[i], _e1z[i], _e2x[i], _e2y[i], _e2z[i],
+                ox, oy, oz, dx, dy, dz);
+    }
+
+    /**
+     * Find the closest intersection of the ray with the triangles of a range of slots,
+     * which is closer than the receiving distance (see {@link Kernel#closest})
+     *
+     * @param start       The first slot of the range
+     * @param end         The slot after the last one of the range
+     * @param ox          The x value of the head of the ray
+     * @param oy          The y value of the head of the ray
+     * @param oz          The z value of the head of the ray
+     * @param dx          The x value of the ray direction
+     * @param dy          The y value of the ray direction
+     * @param dz          The z value of the ray direction
+     * @param maxDistance The maximal distance from the head of the ray
+     * @param distance    Array for the distance of the found intersection (in its first cell)
+     * @return The slot of the closest intersected triangle, -1 if there is none closer than maxDistance
+     */
+    int closest(int start, int end, double ox, double oy, double oz, double dx, double dy, double dz,
+                double maxDistance, double[] distance) {
+        return KERNEL.closest(this, start, end, ox, oy, oz, dx, dy, dz, maxDistance, distance);
+    }
+
+    /**
+     * Count the intersections of the ray with the triangles of a range of slots,
+     * which are not farther than the receiving distance (see {@link Kernel#count})
+     *
+     * @param start       The first slot of the range
+     * @param end         The slot after the last one of the range
+     * @param ox          The x value of the head of the ray
+     * @param oy          The y value of the head of the ray
+     * @param oz          The z value of the head of the ray
+     * @param dx          The x value of the ray direction
+     * @param dy          The y value of the ray direction
+     * @param dz          The z value of the ray direction
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The number of the intersected triangles (int)
+     */
+    int count(int start, int end, double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance) {
+        return KERNEL.count(this, start, end, ox, oy, oz, dx, dy, dz, maxDistance);
+    }
+
+    /**
+     * Choose the kernel: the vector kernel if the jdk.incubator.vector module is in the boot layer
+     * and its class can be loaded, otherwise the scalar kernel
+     *
+     * @return The kernel (Kernel)
+     */
+    private static Kernel selectKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return SCALAR;
+        try {
+            return (Kernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) { // The vector kernel was not compiled
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Allocate an array filled with NaN
+     *
+     * @param size The array size
+     * @return The new array (double[])
+     */
+    private static double[] nan(int size) {
+        double[] array = new double[size];
+        Arrays.fill(array, Double.NaN);
+        return array;
+    }
+}
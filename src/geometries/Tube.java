@@ -6,6 +6,9 @@ import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * Tube class representing three-dimensional tube (infinite cylinder) in 3D Cartesian coordinate
  * system
@@ -24,6 +27,21 @@ public class Tube extends Geometry {
      */
     protected double _radius;
 
+    /**
+     * The maximal number of intersections of a ray with the shape
+     */
+    protected static final int MAX_INTERSECTIONS = 4;
+
+    /**
+     * The head of the axis values
+     */
+    protected final double _x0, _y0, _z0;
+
+    /**
+     * The direction of the axis values
+     */
+    protected final double _dx, _dy, _dz;
+
     /**
      * c-tor initiate the fields with the receiving values
      *
@@ -33,6 +51,16 @@ public class Tube extends Geometry {
     public Tube(Ray axisRay, double radius) {
         _axisRay = axisRay;
         _radius = radius;
+
+        // Keep the axis values for the intersection calculation
+        Point3D p0 = axisRay.getP0();
+        Vector dir = axisRay.getDir();
+        _x0 = p0.getX();
+        _y0 = p0.getY();
+        _z0 = p0.getZ();
+        _dx = dir.getX();
+        _dy = dir.getY();
+        _dz = dir.getZ();
     }
 
     /**
@@ -65,12 +93,10 @@ public class Tube extends Geometry {
         Vector centeredVectorDirection = _axisRay.getDir();
         Point3D p0 = _axisRay.getP0();
 
-        // If the projection equals to zero we cant calculate a normal.
-        double projection = centeredVectorDirection.dotProduct(point.subtract(p0));
-        if (projection == 0) throw new IllegalArgumentException("the projection cannot be 0");
-
         // Calculate the point on the centered ray of the tube to calculate the normal with it.
-        Point3D center = p0.add(centeredVectorDirection.scale(projection));
+        // If the point is in front of the head of the centered ray, the head itself is the center.
+        double projection = centeredVectorDirection.dotProduct(point.subtract(p0));
+        Point3D center = isZero(projection) ? p0 : p0.add(centeredVectorDirection.scale(projection));
 
         // Calculate the normal
         Vector v = point.subtract(center);
@@ -79,16 +105,106 @@ public class Tube extends Geometry {
         return v.normalize();
     }
 
+    /**
+     * Return the box bounding the tube - the tube is infinite
+     *
+     * @return {@link BoundingBox#INFINITE}
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * Return list of intersection GeoPoint
      *
      * @param ray The light ray
-     * @return List of intersection GeoPoint
+     * @return List of intersection GeoPoint, ordered by the distance from the head of the ray
      */
-    // NOT IMPLEMENTED
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray) {
-        return null;
+        double[] t = new double[MAX_INTERSECTIONS];
+        int count = intersect(ray, Double.POSITIVE_INFINITY, t);
+        if (count == 0) return null;
+
+        GeoPoint[] intersections = new GeoPoint[count];
+        for (int i = 0; i < count; ++i)
+            intersections[i] = new GeoPoint(this, ray.getPoint(t[i]), t[i]);
+        return List.of(intersections);
+    }
+
+    /**
+     * Find the closest intersection point of the ray and the shape if it is closer than the receiving distance
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray
+     * @return The intersection point (GeoPoint), null if there is no intersection closer than maxDistance
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        double[] t = new double[MAX_INTERSECTIONS];
+        return intersect(ray, maxDistance, t) > 0 && t[0] < maxDistance ? new GeoPoint(this, ray.getPoint(t[0]), t[0]) : null;
+    }
+
+    /**
+     * Calculate the transparency of the shape along the ray up to the receiving distance
+     *
+     * @param ray             The light ray
+     * @param maxDistance     The maximal distance from the head of the ray
+     * @param ktr             The transparency accumulated so far
+     * @param minTransparency The minimal transparency, below it the ray is blocked
+     * @return The accumulated transparency, 0 if the ray is blocked (double)
+     */
+    @Override
+    public double findTransparency(Ray ray, double maxDistance, double ktr, double minTransparency) {
+        double[] t = new double[MAX_INTERSECTIONS];
+        int count = intersect(ray, maxDistance, t);
+        for (int i = 0; i < count && alignZero(t[i] - maxDistance) <= 0; ++i) {
+            ktr *= getMaterial()._kT;
+            if (ktr < minTransparency) return 0.0;
+        }
+        return ktr;
+    }
+
+    /**
+     * Intersect the ray with the shape.
+     * The points of the ray are put in the equation of the tube (the distance from the axis equals the radius)
+     * after the axis components are removed: |A * t + B|^2 = r^2, where A and B are the components of the ray
+     * direction and of the vector from the axis head to the ray head which are orthogonal to the axis.
+     * A tangent ray and a ray parallel to the axis don't intersect the tube.
+     *
+     * @param ray         The light ray
+     * @param maxDistance The maximal distance from the head of the ray (a shape may skip farther intersections)
+     * @param t           Array for the distances of the intersections from the head of the ray,
+     *                    ordered by the distance (at least {@link #MAX_INTERSECTIONS} cells)
+     * @return The number of the intersections (int)
+     */
+    protected int intersect(Ray ray, double maxDistance, double[] t) {
+        Point3D head = ray.getP0();
+        Vector dir = ray.getDir();
+        double vx = dir.getX(), vy = dir.getY(), vz = dir.getZ();
+        double px = head.getX() - _x0, py = head.getY() - _y0, pz = head.getZ() - _z0;
+
+        // The components of the ray direction (A) and of the head (B) orthogonal to the axis
+        double dv = vx * _dx + vy * _dy + vz * _dz;
+        double dp = px * _dx + py * _dy + pz * _dz;
+        double ax = vx - dv * _dx, ay = vy - dv * _dy, az = vz - dv * _dz;
+        double bx = px - dp * _dx, by = py - dp * _dy, bz = pz - dp * _dz;
+
+        // The quadratic equation a * t^2 + 2 * b * t + c = 0
+        double a = ax * ax + ay * ay + az * az;
+        if (isZero(a)) return 0; // The ray is parallel to the axis
+        double b = ax * bx + ay * by + az * bz;
+        double c = bx * bx + by * by + bz * bz - _radius * _radius;
+        double discriminant = alignZero(b * b - a * c);
+        if (discriminant <= 0) return 0; // The ray misses the tube or is tangent to it
+
+        double root = Math.sqrt(discriminant);
+        int count = 0;
+        double t1 = (-b - root) / a, t2 = (-b + root) / a;
+        if (alignZero(t1) > 0) t[count++] = t1;
+        if (alignZero(t2) > 0) t[count++] = t2;
+        return count;
     }
 
     @Override
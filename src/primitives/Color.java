@@ -11,11 +11,11 @@ package primitives;
 public class Color {
     /**
      * The internal fields tx`o maintain RGB components as double numbers from 0 to
-     * whatever...
+     * whatever... (intentionally "package-friendly" for the in-place operations of Scratch)
      */
-    private final double r;
-    private final double g;
-    private final double b;
+    final double r;
+    final double g;
+    final double b;
 
     /**
      * Black color = (0,0,0)
@@ -122,6 +122,32 @@ public class Color {
         return new Color(r / k, g / k, b / k);
     }
 
+    /**
+     * Calculate the perceptual difference between two colors, by the displayed RGB values (up to 255)
+     * weighted by the sensitivity of the eye ("redmean" approximation):
+     * sqrt((2 + r'/256) * dr^2 + 4 * dg^2 + (2 + (255 - r')/256) * db^2), where r' is the mean red value.
+     *
+     * @param color The color to compare with
+     * @return The difference, 0 for the same displayed color up to about 765 for black and white (double)
+     */
+    public double distance(Color color) {
+        double r1 = Math.min(r, 255), r2 = Math.min(color.r, 255);
+        double dr = r1 - r2;
+        double dg = Math.min(g, 255) - Math.min(color.g, 255);
+        double db = Math.min(b, 255) - Math.min(color.b, 255);
+        double redMean = (r1 + r2) / 2;
+        return Math.sqrt((2 + redMean / 256) * dr * dr + 4 * dg * dg + (2 + (255 - redMean) / 256) * db * db);
+    }
+
+    /**
+     * Return the largest component of the color
+     *
+     * @return The maximum of the r, g and b values (double)
+     */
+    public double getMax() {
+        return Math.max(r, Math.max(g, b));
+    }
+
     /**
      * Compare two colors if they are in the same variety
      * The range of the variety is 1 for each r,g,b.
@@ -33,6 +33,22 @@ public class Material {
      */
     public double _kR = 0.0;
 
+    /**
+     * The shininess factor the power chain was prepared for (see {@link #setNShininess(int)})
+     */
+    private int _chainShininess = 0;
+
+    /**
+     * The number of the squarings of the power chain (the index of the highest set bit of the shininess factor)
+     */
+    private int _chainSquarings = 0;
+
+    /**
+     * The bits of the shininess factor below its highest set bit, the square of each set bit is multiplied
+     * into the power
+     */
+    private int _chainBits = 0;
+
     /**
      * Set the diffuse attenuation factor
      *
@@ -68,6 +84,13 @@ public class Material {
     public Material setNShininess(int nShininess) {
         this.nShininess = nShininess;
 
+        // Prepare the power chain of the shininess factor once, instead of in each power
+        if (nShininess > 0) {
+            _chainSquarings = 31 - Integer.numberOfLeadingZeros(nShininess);
+            _chainBits = nShininess ^ Integer.highestOneBit(nShininess);
+        }
+        _chainShininess = nShininess;
+
         // return this for chaining
         return this;
     }
@@ -97,4 +120,41 @@ public class Material {
         // return this for chaining
         return this;
     }
+
+    /**
+     * Raise the receiving value to the power of the shininess factor by the power chain prepared by
+     * {@link #setNShininess(int)} (exponentiation by squaring): the value is squared once per bit of the
+     * (integer) shininess factor below its highest bit, and the squares of the set bits are multiplied,
+     * so e.g. a shininess of 60 costs 9 multiplications instead of a general {@link Math#pow(double, double)}
+     * (with its logarithm and exponent). The squarings and the multiplications are two independent chains.
+     * If the shininess field was changed directly, the chain is calculated for the call.
+     *
+     * @param value The value (usually the cosine of the angle between the view and the reflection)
+     * @return The value raised to the power of the shininess factor (double)
+     */
+    public double powShininess(double value) {
+        int n = nShininess;
+        if (n <= 0) return n == 0 ? 1 : Math.pow(value, n);
+        if (n != _chainShininess)
+            return pow(value, 31 - Integer.numberOfLeadingZeros(n), n ^ Integer.highestOneBit(n));
+        return pow(value, _chainSquarings, _chainBits);
+    }
+
+    /**
+     * Raise a value to a positive integer power by its chain (see {@link #powShininess(double)})
+     *
+     * @param value     The value
+     * @param squarings The number of squarings (the index of the highest set bit of the power)
+     * @param bits      The bits of the power below its highest set bit
+     * @return The value raised to the power (double)
+     */
+    private static double pow(double value, int squarings, int bits) {
+        double result = 1;
+        for (int bit = 0; bit < squarings; ++bit) {
+            if ((bits >> bit & 1) != 0) result *= value;
+            value *= value;
+        }
+        // The highest bit is always set
+        return result * value;
+    }
 }
@@ -1,5 +1,8 @@
 package primitives;
 
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
 /**
  * class Point3D representing a point in 3 domination
  *
@@ -8,20 +11,22 @@ package primitives;
 
 public class Point3D {
 
+    // The coordinates are kept as raw values (aligned to zero like in Coordinate class)
+    // to avoid allocating three more objects for each point
     /**
      * The x coordinate
      */
-    final Coordinate _x;
+    final double _x;
 
     /**
      * The y coordinate
      */
-    final Coordinate _y;
+    final double _y;
 
     /**
      * The z coordinate
      */
-    final Coordinate _z;
+    final double _z;
 
     /**
      * The zero point for shortcut
@@ -36,9 +41,9 @@ public class Point3D {
      * @param z The z coordinate
      */
     public Point3D(double x, double y, double z) {
-        _x = new Coordinate(x);
-        _y = new Coordinate(y);
-        _z = new Coordinate(z);
+        _x = alignZero(x);
+        _y = alignZero(y);
+        _z = alignZero(z);
     }
 
     /**
@@ -47,7 +52,7 @@ public class Point3D {
      * @return The x coordinate (double)
      */
     public double getX() {
-        return _x.coord;
+        return _x;
     }
 
     /**
@@ -56,7 +61,7 @@ public class Point3D {
      * @return The y coordinate (double)
      */
     public double getY() {
-        return _y.coord;
+        return _y;
     }
 
     /**
@@ -65,7 +70,7 @@ public class Point3D {
      * @return The z coordinate (double)
      */
     public double getZ() {
-        return _z.coord;
+        return _z;
     }
 
     /**
@@ -77,11 +82,7 @@ public class Point3D {
      */
     public Vector subtract(Point3D point) {
 
-        Point3D newPoint = new Point3D(getX() - point.getX(),
-                getY() - point.getY(),
-                getZ() - point.getZ());
-
-        return new Vector(newPoint);
+        return new Vector(_x - point._x, _y - point._y, _z - point._z);
     }
 
 
@@ -94,11 +95,7 @@ public class Point3D {
      */
     public Point3D add(Vector vector) {
 
-        Point3D newPoint = new Point3D(getX() + vector._head.getX(),
-                getY() + vector._head.getY(),
-                getZ() + vector._head.getZ());
-
-        return newPoint;
+        return new Point3D(_x + vector._x, _y + vector._y, _z + vector._z);
     }
 
     /**
@@ -110,9 +107,9 @@ public class Point3D {
     public double distanceSquared(Point3D point) {
 
         // Calculate the difference between the points
-        double distanceX = (getX() - point.getX()),
-                distanceY = (getY() - point.getY()),
-                distanceZ = (getZ() - point.getZ());
+        double distanceX = (_x - point._x),
+                distanceY = (_y - point._y),
+                distanceZ = (_z - point._z);
 
         // Calculate the squared distance
         double distanceSquared = distanceX * distanceX
@@ -141,9 +138,8 @@ public class Point3D {
 
         Point3D point3D = (Point3D) o;
 
-        if (_x != null ? !_x.equals(point3D._x) : point3D._x != null) return false;
-        if (_y != null ? !_y.equals(point3D._y) : point3D._y != null) return false;
-        return _z != null ? _z.equals(point3D._z) : point3D._z == null;
+        // The same equality of each coordinate as in Coordinate class
+        return isZero(_x - point3D._x) && isZero(_y - point3D._y) && isZero(_z - point3D._z);
     }
 
     @Override
@@ -87,6 +87,18 @@ public class Ray {
         return _p0.add(_dir.scale(t));
     }
 
+    /**
+     * Calculate the parameter 't' of a point on the ray (the opposite of {@link #getPoint(double)}).
+     * Since the direction is normalized, it is the distance of the point from the head of the ray,
+     * calculated without square root.
+     *
+     * @param point The point on the ray
+     * @return The distance from the head of the ray to the point (double)
+     */
+    public double getParameter(Point3D point) {
+        return _dir.dotProduct(point) - _dir.dotProduct(_p0);
+    }
+
     /**
      * Find the closest point to the head of the ray from the receiving points list as parameter
      *
@@ -133,31 +145,25 @@ public class Ray {
         // If the list is empty
         if (geoPointList.isEmpty()) return null;
 
-        // The initial distance to compare with the rest of the list
-        // is the distance between the head of the ray and the first point in the GeoPoint list
-        double minDistance = geoPointList.get(0)._point.distance(getP0());
-
-        //indexes to find the element with the closest point.
-        // The initial value is the first element in the list (with index of 0)
-        int indexOfElementWithClosestPoint = 0;
-        // The index of the current GeoPoint (initial to the first GeoPoint, with index of 0)
-        int iterationIndex = 0;
+        // The closest GeoPoint were found until now and its squared distance from the head of the ray
+        // (the squared distances have the same order as the distances, without calculating square root)
+        GeoPoint closest = null;
+        double minDistanceSquared = Double.POSITIVE_INFINITY;
 
-        // Calculate and compare the distance between the rest of the GeoPoints in the list
+        // Calculate and compare the distance between the GeoPoints in the list
         for (GeoPoint item : geoPointList) {
-            // Compare the distance between the minDistance were found until now and the
+            double distanceSquared = item._point.distanceSquared(_p0);
+            // Compare the distance between the minimal distance were found until now and the
             // distance of the new GeoPoint (the next GeoPoint in the GeoPoints list)
-            if (item._point.distance(getP0()) < minDistance) {
+            if (distanceSquared < minDistanceSquared) {
                 //Update the new minimum distance to compare with
-                minDistance = item._point.distance(getP0());
-                // Update the index of the closest GeoPoint to be the index of the current GeoPoint
-                indexOfElementWithClosestPoint = iterationIndex;
+                minDistanceSquared = distanceSquared;
+                // Update the closest GeoPoint to be the current GeoPoint
+                closest = item;
             }
-            // Update the index to the index of the next GeoPoint in the list
-            iterationIndex++;
         }
-        // Return the GeoPoint with the index of the closest GeoPoint were found
-        return geoPointList.get(indexOfElementWithClosestPoint);
+        // Return the closest GeoPoint were found
+        return closest;
     }
 
     @Override
@@ -0,0 +1,37 @@
+package primitives;
+
+/**
+ * Sampler interface, a source of random numbers for the stochastic sampling (e.g. super sampling, depth of field).
+ * A sampler is shared by all the render threads, so each implementation keeps a separate sequence for each thread.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+public interface Sampler {
+
+    /**
+     * Return the next random number of the current thread's sequence
+     *
+     * @return Random number in the range [0, 1) (double)
+     */
+    double nextDouble();
+
+    /**
+     * Start a new sequence for the current thread, determined only by the sampler and the receiving key.
+     * Starting the same key (e.g. the index of an image tile) gives the same numbers on any thread,
+     * so the render is reproducible regardless of the threads count.
+     *
+     * @param key The key of the sequence
+     */
+    void startSequence(long key);
+
+    /**
+     * Return the next random number of the current thread's sequence in the receiving range
+     *
+     * @param min The minimal value
+     * @param max The maximal value
+     * @return Random number in the range [min, max) (double)
+     */
+    default double random(double min, double max) {
+        return nextDouble() * (max - min) + min;
+    }
+}
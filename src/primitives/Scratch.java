@@ -0,0 +1,254 @@
+package primitives;
+
+/**
+ * Scratch class holds per-thread registers for the hot path of the ray tracing.
+ * Each register is a mutable vector (x, y, z), color (r, g, b) or single value in a flat array,
+ * and the operations change the register in place instead of allocating new objects.
+ * The registers of one thread are received by {@link #get()}, so they must not be kept
+ * or passed to another thread.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+public final class Scratch {
+
+    /**
+     * The number of vector registers
+     */
+    public static final int VECTOR_REGISTERS = 8;
+
+    /**
+     * The number of color registers
+     */
+    public static final int COLOR_REGISTERS = 8;
+
+    /**
+     * The number of value registers
+     */
+    public static final int VALUE_REGISTERS = 4;
+
+    /**
+     * The registers of each thread
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * The vector registers, 3 values (x, y, z) per register
+     */
+    private final double[] _vectors = new double[3 * VECTOR_REGISTERS];
+
+    /**
+     * The color registers, 3 values (r, g, b) per register
+     */
+    private final double[] _colors = new double[3 * COLOR_REGISTERS];
+
+    /**
+     * The value registers
+     */
+    private final double[] _values = new double[VALUE_REGISTERS];
+
+    /**
+     * Private c-tor, the registers are received by {@link #get()}
+     */
+    private Scratch() {
+    }
+
+    /**
+     * Return the registers of the current thread
+     *
+     * @return The registers (Scratch)
+     */
+    public static Scratch get() {
+        return SCRATCH.get();
+    }
+
+    //--------------------------------------------------- VECTORS ---------------------------------------------------//
+
+    /**
+     * Set the vector register to the receiving vector
+     *
+     * @param reg    The register index
+     * @param vector The vector
+     * @return this (Scratch)
+     */
+    public Scratch setVector(int reg, Vector vector) {
+        int i = 3 * reg;
+        _vectors[i] = vector._x;
+        _vectors[i + 1] = vector._y;
+        _vectors[i + 2] = vector._z;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the vector register to the subtraction of two points (to - from)
+     *
+     * @param reg  The register index
+     * @param to   The head point
+     * @param from The tail point
+     * @return this (Scratch)
+     */
+    public Scratch setVector(int reg, Point3D to, Point3D from) {
+        int i = 3 * reg;
+        _vectors[i] = to._x - from._x;
+        _vectors[i + 1] = to._y - from._y;
+        _vectors[i + 2] = to._z - from._z;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Add the receiving vector scaled by a scalar to the vector register (reg += k * vector)
+     *
+     * @param reg    The register index
+     * @param vector The vector to add
+     * @param k      The scalar
+     * @return this (Scratch)
+     */
+    public Scratch addScaled(int reg, Vector vector, double k) {
+        int i = 3 * reg;
+        _vectors[i] += k * vector._x;
+        _vectors[i + 1] += k * vector._y;
+        _vectors[i + 2] += k * vector._z;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Scale the vector register by a scalar
+     *
+     * @param reg The register index
+     * @param k   The scalar
+     * @return this (Scratch)
+     */
+    public Scratch scale(int reg, double k) {
+        int i = 3 * reg;
+        _vectors[i] *= k;
+        _vectors[i + 1] *= k;
+        _vectors[i + 2] *= k;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Normalize the vector register
+     *
+     * @param reg The register index
+     * @return this (Scratch)
+     */
+    public Scratch normalize(int reg) {
+        return scale(reg, 1 / Math.sqrt(lengthSquared(reg)));
+    }
+
+    /**
+     * Calculate the dot product between the vector register and the receiving vector
+     *
+     * @param reg    The register index
+     * @param vector The vector to product with
+     * @return The dot product result (double)
+     */
+    public double dotProduct(int reg, Vector vector) {
+        int i = 3 * reg;
+        return _vectors[i] * vector._x + _vectors[i + 1] * vector._y + _vectors[i + 2] * vector._z;
+    }
+
+    /**
+     * Calculate the squared length of the vector register
+     *
+     * @param reg The register index
+     * @return The squared length (double)
+     */
+    public double lengthSquared(int reg) {
+        int i = 3 * reg;
+        return _vectors[i] * _vectors[i] + _vectors[i + 1] * _vectors[i + 1] + _vectors[i + 2] * _vectors[i + 2];
+    }
+
+    /**
+     * Create a vector with the values of the vector register
+     *
+     * @param reg The register index
+     * @return New vector (Vector)
+     * @throws IllegalArgumentException if the register is the zero vector
+     */
+    public Vector toVector(int reg) {
+        int i = 3 * reg;
+        return new Vector(_vectors[i], _vectors[i + 1], _vectors[i + 2]);
+    }
+
+    //--------------------------------------------------- COLORS ---------------------------------------------------//
+
+    /**
+     * Set the color register to the receiving color
+     *
+     * @param reg   The register index
+     * @param color The color
+     * @return this (Scratch)
+     */
+    public Scratch setColor(int reg, Color color) {
+        int i = 3 * reg;
+        _colors[i] = color.r;
+        _colors[i + 1] = color.g;
+        _colors[i + 2] = color.b;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Add the receiving color scaled by a factor to the color register (reg += k * color)
+     *
+     * @param reg   The register index
+     * @param color The color to add
+     * @param k     The scale factor (not negative)
+     * @return this (Scratch)
+     */
+    public Scratch addColor(int reg, Color color, double k) {
+        int i = 3 * reg;
+        _colors[i] += k * color.r;
+        _colors[i + 1] += k * color.g;
+        _colors[i + 2] += k * color.b;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Create a color with the values of the color register
+     *
+     * @param reg The register index
+     * @return New color (Color)
+     */
+    public Color toColor(int reg) {
+        int i = 3 * reg;
+        return new Color(_colors[i], _colors[i + 1], _colors[i + 2]);
+    }
+
+    //--------------------------------------------------- VALUES ---------------------------------------------------//
+
+    /**
+     * Set the value register to the receiving value
+     *
+     * @param reg   The register index
+     * @param value The value
+     * @return this (Scratch)
+     */
+    public Scratch setValue(int reg, double value) {
+        _values[reg] = value;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Return the value of the value register
+     *
+     * @param reg The register index
+     * @return The value (double)
+     */
+    public double getValue(int reg) {
+        return _values[reg];
+    }
+}
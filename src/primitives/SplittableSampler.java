@@ -0,0 +1,66 @@
+package primitives;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampler implementation by a splittable generator for each thread.
+ * The threads don't share any generator, so there is no contention between them
+ * (unlike {@link Math#random()} which shares one global generator).
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+public class SplittableSampler implements Sampler {
+
+    /**
+     * The seed of the sampler, the sequences are derived from it
+     */
+    private final long _seed;
+
+    /**
+     * The root generator, the first generator of each thread is split from it
+     */
+    private final SplittableRandom _root;
+
+    /**
+     * The generator of each thread
+     */
+    private final ThreadLocal<SplittableRandom> _random;
+
+    /**
+     * c-tor, initiate the sampler with a random seed
+     */
+    public SplittableSampler() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * c-tor, initiate the sampler with the receiving seed (for reproducible sampling)
+     *
+     * @param seed The seed
+     */
+    public SplittableSampler(long seed) {
+        _seed = seed;
+        _root = new SplittableRandom(seed);
+        _random = ThreadLocal.withInitial(this::split);
+    }
+
+    /**
+     * Split a new generator from the root generator (SplittableRandom itself is not thread safe)
+     *
+     * @return The new generator (SplittableRandom)
+     */
+    private synchronized SplittableRandom split() {
+        return _root.split();
+    }
+
+    @Override
+    public double nextDouble() {
+        return _random.get().nextDouble();
+    }
+
+    @Override
+    public void startSequence(long key) {
+        // Mix the key into the seed, so close keys give unrelated sequences
+        _random.set(new SplittableRandom(new SplittableRandom(_seed ^ (key * 0x9E3779B97F4A7C15L)).nextLong()));
+    }
+}
@@ -12,6 +12,11 @@ public abstract class Util {
      */
     private static final int ACCURACY = -40;
 
+    /**
+     * The sampler of {@link #random(double, double)} (a generator per thread instead of the global one of Math.random)
+     */
+    private static final Sampler SAMPLER = new SplittableSampler();
+
     /**
      * Empty private c-tor to hide the public one
      */
@@ -69,7 +74,7 @@ public abstract class Util {
      * @return the random value
      */
     public static double random(double min, double max) {
-        return Math.random() * (max - min) + min;
+        return SAMPLER.random(min, max);
     }
 
 }
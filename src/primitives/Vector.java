@@ -1,6 +1,7 @@
 package primitives;
 
-import static primitives.Point3D.ZERO;
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Vector class representing a vector in the space (3D).
@@ -9,10 +10,22 @@ import static primitives.Point3D.ZERO;
  */
 public class Vector {
 
+    // The coordinates of the head are kept as raw values (aligned to zero like in Point3D class)
+    // to avoid allocating the head point and its coordinates for each vector
     /**
-     * The head of the vector
+     * The x coordinate of the head of the vector
      */
-    Point3D _head;
+    double _x;
+
+    /**
+     * The y coordinate of the head of the vector
+     */
+    double _y;
+
+    /**
+     * The z coordinate of the head of the vector
+     */
+    double _z;
 
     /**
      * c-tor, initiate the coordinate of the vector's head with the receiving values
@@ -22,14 +35,12 @@ public class Vector {
      * @param z The z coordinate
      */
     public Vector(double x, double y, double z) {
-        //Creating the new point with the receiving coordinates
-        Point3D newPoint = new Point3D(x, y, z);
+        _x = alignZero(x);
+        _y = alignZero(y);
+        _z = alignZero(z);
 
         // Check if the coordinates create the ZERO vector, because in our program its can't be.
-        if (newPoint.equals(ZERO)) throw new IllegalArgumentException("The vector cannot be the 'zero vector' ");
-
-        // Update the head to be the created point
-        _head = new Point3D(x, y, z);
+        if (_x == 0 && _y == 0 && _z == 0) throw new IllegalArgumentException("The vector cannot be the 'zero vector' ");
     }
 
     /**
@@ -38,9 +49,7 @@ public class Vector {
      * @param head The point to initiate the coordinate with
      */
     public Vector(Point3D head) {
-        // Check if the coordinates create the ZERO vector, because in our program its can't be.
-        if (head.equals(ZERO)) throw new IllegalArgumentException("The vector cannot be the 'zero vector' ");
-        _head = head;
+        this(head._x, head._y, head._z);
     }
 
     /**
@@ -50,9 +59,9 @@ public class Vector {
      * @return New vector after adding (Vector)
      */
     public Vector add(Vector vector) {
-        Vector newVector = new Vector(getHead().getX() + vector.getHead().getX(),
-                getHead().getY() + vector.getHead().getY(),
-                getHead().getZ() + vector.getHead().getZ());
+        Vector newVector = new Vector(_x + vector._x,
+                _y + vector._y,
+                _z + vector._z);
 
         return newVector;
     }
@@ -64,9 +73,9 @@ public class Vector {
      * @return New vector after subtracting (Vector)
      */
     public Vector subtract(Vector vector) {
-        Vector newVector = new Vector(getHead().getX() - vector.getHead().getX(),
-                getHead().getY() - vector.getHead().getY(),
-                getHead().getZ() - vector.getHead().getZ());
+        Vector newVector = new Vector(_x - vector._x,
+                _y - vector._y,
+                _z - vector._z);
 
         return newVector;
     }
@@ -79,7 +88,7 @@ public class Vector {
      */
     public Vector scale(double scalar) {
 
-        return new Vector(getHead().getX() * scalar, getHead().getY() * scalar, getHead().getZ() * scalar);
+        return new Vector(_x * scalar, _y * scalar, _z * scalar);
     }
 
 
@@ -91,9 +100,9 @@ public class Vector {
      * @return The dot product result (double)
      */
     public double dotProduct(Vector vector) {
-        return (getHead().getX() * vector.getHead().getX() +
-                getHead().getY() * vector.getHead().getY() +
-                getHead().getZ() * vector.getHead().getZ());
+        return (_x * vector._x +
+                _y * vector._y +
+                _z * vector._z);
     }
 
     /**
@@ -104,9 +113,9 @@ public class Vector {
      * @return The dot product result (double)
      */
     public double dotProduct(Point3D point3D) {
-        return (getHead().getX() * point3D.getX() +
-                getHead().getY() * point3D.getY() +
-                getHead().getZ() * point3D.getZ());
+        return (_x * point3D._x +
+                _y * point3D._y +
+                _z * point3D._z);
     }
 
     /**
@@ -117,9 +126,9 @@ public class Vector {
      */
     public Vector crossProduct(Vector vector) {
         return new Vector(
-                getHead().getY() * vector.getHead().getZ() - getHead().getZ() * vector.getHead().getY(),
-                getHead().getZ() * vector.getHead().getX() - getHead().getX() * vector.getHead().getZ(),
-                getHead().getX() * vector.getHead().getY() - getHead().getY() * vector.getHead().getX()
+                _y * vector._z - _z * vector._y,
+                _z * vector._x - _x * vector._z,
+                _x * vector._y - _y * vector._x
         );
     }
 
@@ -129,9 +138,9 @@ public class Vector {
      * @return The squared length of the vector (double)
      */
     public double lengthSquared() {
-        return getHead().getX() * getHead().getX()
-                + getHead().getY() * getHead().getY()
-                + getHead().getZ() * getHead().getZ();
+        return _x * _x
+                + _y * _y
+                + _z * _z;
     }
 
 
@@ -155,13 +164,9 @@ public class Vector {
         double length = this.length();
 
         //Normalize the vector
-        Point3D newPoint = new Point3D(
-                getHead().getX() / length,
-                getHead().getY() / length,
-                getHead().getZ() / length
-        );
-
-        _head = newPoint;
+        _x = alignZero(_x / length);
+        _y = alignZero(_y / length);
+        _z = alignZero(_z / length);
 
         return this;
     }
@@ -174,7 +179,7 @@ public class Vector {
     public Vector normalized() {
 
         // Create new vector with the same values
-        Vector newVector = new Vector(getHead());
+        Vector newVector = new Vector(_x, _y, _z);
 
         // normalized and return the new vector
         return newVector.normalize();
@@ -186,7 +191,34 @@ public class Vector {
      * @return The head point of the vector (Point3D)
      */
     public Point3D getHead() {
-        return _head;
+        return new Point3D(_x, _y, _z);
+    }
+
+    /**
+     * Get the x coordinate of the head of the vector
+     *
+     * @return The x coordinate (double)
+     */
+    public double getX() {
+        return _x;
+    }
+
+    /**
+     * Get the y coordinate of the head of the vector
+     *
+     * @return The y coordinate (double)
+     */
+    public double getY() {
+        return _y;
+    }
+
+    /**
+     * Get the z coordinate of the head of the vector
+     *
+     * @return The z coordinate (double)
+     */
+    public double getZ() {
+        return _z;
     }
 
     @Override
@@ -196,13 +228,14 @@ public class Vector {
 
         Vector vector = (Vector) o;
 
-        return _head != null ? _head.equals(vector._head) : vector._head == null;
+        // The same equality of the heads as in Point3D class
+        return isZero(_x - vector._x) && isZero(_y - vector._y) && isZero(_z - vector._z);
     }
 
     @Override
     public String toString() {
         return "Vector{" +
-                "_head=" + _head +
+                "_head=(" + _x + "," + _y + "," + _z + ")" +
                 '}';
     }
 }
@@ -0,0 +1,291 @@
+package renderer;
+
+import elements.LightSource;
+import elements.PointLight;
+import primitives.Point3D;
+import primitives.Scratch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary tree of the point lights (and spot lights) of a scene, for sampling lights by their importance.
+ * Each leaf is one light, and each node keeps the bounds of the positions of its lights, their total power
+ * (the sum of their maximal intensities) and the minimal attenuation factors of its lights, which estimate
+ * the intensity of all its lights together at a point.
+ * A light is sampled by one walk from the root to a leaf, choosing a child in proportion to its estimate,
+ * so the cost of a sample depends on the depth of the tree and not on the number of the lights.
+ * The tree is flattened into arrays in depth first order, as in the bounding volume hierarchy of the geometries.
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+final class LightTree {
+
+    /**
+     * The minimal attenuation denominator of an estimate (a point inside a node without constant attenuation)
+     */
+    private static final double MIN_DENOMINATOR = 1e-6;
+
+    /**
+     * The lights of the leaves, in the leaves order
+     */
+    private final PointLight[] _lights;
+
+    /**
+     * The indices of the lights of the leaves in the light sources list of the scene
+     */
+    private final int[] _indices;
+
+    /**
+     * The other light sources of the scene (which are not in the tree, e.g. directional lights)
+     */
+    final LightSource[] _others;
+
+    /**
+     * The indices of the other light sources in the light sources list of the scene
+     */
+    final int[] _othersIndices;
+
+    /**
+     * The number of all the light sources of the scene
+     */
+    final int _size;
+
+    /**
+     * The bounds of the lights positions of the nodes, 6 values per node (min x, y, z and max x, y, z)
+     */
+    private final double[] _bounds;
+
+    /**
+     * The total power of the lights of the nodes
+     */
+    private final double[] _power;
+
+    /**
+     * The minimal attenuation factors of the lights of the nodes
+     */
+    private final double[] _kC, _kL, _kQ;
+
+    /**
+     * For a leaf - the index of its light in {@link #_lights}, for an inner node - the index of its right child
+     */
+    private final int[] _offset;
+
+    /**
+     * True for a leaf
+     */
+    private final boolean[] _leaf;
+
+    /**
+     * The number of nodes in the tree
+     */
+    private int _nodeCount = 0;
+
+    /**
+     * c-tor build the tree over the point lights of the receiving light sources
+     *
+     * @param lightSources The light sources of the scene
+     */
+    LightTree(List<LightSource> lightSources) {
+        List<PointLight> lights = new ArrayList<>();
+        List<LightSource> others = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>(), othersIndices = new ArrayList<>();
+        int index = 0;
+        for (LightSource lightSource : lightSources) {
+            if (lightSource instanceof PointLight) {
+                lights.add((PointLight) lightSource);
+                indices.add(index);
+            } else {
+                others.add(lightSource);
+                othersIndices.add(index);
+            }
+            ++index;
+        }
+        int count = lights.size();
+        _size = index;
+        _lights = lights.toArray(new PointLight[0]);
+        _indices = indices.stream().mapToInt(Integer::intValue).toArray();
+        _others = others.toArray(new LightSource[0]);
+        _othersIndices = othersIndices.stream().mapToInt(Integer::intValue).toArray();
+
+        // A tree with a light in each leaf has exactly 2n-1 nodes
+        int nodes = Math.max(2 * count - 1, 0);
+        _bounds = new double[6 * nodes];
+        _power = new double[nodes];
+        _kC = new double[nodes];
+        _kL = new double[nodes];
+        _kQ = new double[nodes];
+        _offset = new int[nodes];
+        _leaf = new boolean[nodes];
+        if (count > 0) build(0, count);
+    }
+
+    /**
+     * Check whether there are no lights in the tree
+     *
+     * @return True if the tree is empty
+     */
+    boolean isEmpty() {
+        return _lights.length == 0;
+    }
+
+    /**
+     * Return the light of a leaf
+     *
+     * @param slot The index of the light in the leaves order
+     * @return The light (PointLight)
+     */
+    PointLight light(int slot) {
+        return _lights[slot];
+    }
+
+    /**
+     * Return the index of the light of a leaf in the light sources list of the scene
+     *
+     * @param slot The index of the light in the leaves order
+     * @return The index in the list (int)
+     */
+    int index(int slot) {
+        return _indices[slot];
+    }
+
+    /**
+     * Sample a light for the receiving point, in proportion to the estimated intensity of the lights at it.
+     * One random number is enough for the whole walk: after each choice it is stretched back to [0, 1)
+     * within the range of the chosen child.
+     *
+     * @param point   The point to light
+     * @param u       Random number in the range [0, 1)
+     * @param scratch The scratch registers of the current thread
+     * @param pdf     The value register for the probability of the sampled light
+     * @return The index of the sampled light in the leaves order
+     */
+    int sample(Point3D point, double u, Scratch scratch, int pdf) {
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        double probability = 1;
+        int node = 0;
+        while (!_leaf[node]) {
+            int left = node + 1, right = _offset[node];
+            double wLeft = estimate(left, x, y, z), wRight = estimate(right, x, y, z);
+            double pLeft = wLeft + wRight > 0 ? wLeft / (wLeft + wRight) : 0.5;
+            if (u < pLeft) {
+                u /= pLeft;
+                probability *= pLeft;
+                node = left;
+            } else {
+                u = (u - pLeft) / (1 - pLeft);
+                probability *= 1 - pLeft;
+                node = right;
+            }
+            // Keep the random number in range after the rounding of the stretches
+            u = Math.min(u, Math.nextDown(1.0));
+        }
+        scratch.setValue(pdf, probability);
+        return _offset[node];
+    }
+
+    /**
+     * Estimate the intensity of all the lights of a node at a point, by their total power and their minimal
+     * attenuation factors at the distance of the point from the bounds of their positions
+     *
+     * @param node The node index
+     * @param x    The x value of the point
+     * @param y    The y value of the point
+     * @param z    The z value of the point
+     * @return The estimated intensity (double)
+     */
+    private double estimate(int node, double x, double y, double z) {
+        int b = 6 * node;
+        double dx = Math.max(0, Math.max(_bounds[b] - x, x - _bounds[b + 3]));
+        double dy = Math.max(0, Math.max(_bounds[b + 1] - y, y - _bounds[b + 4]));
+        double dz = Math.max(0, Math.max(_bounds[b + 2] - z, z - _bounds[b + 5]));
+        double distanceSquared = dx * dx + dy * dy + dz * dz;
+        double denominator = _kC[node] + _kL[node] * Math.sqrt(distanceSquared) + _kQ[node] * distanceSquared;
+        return _power[node] / Math.max(denominator, MIN_DENOMINATOR);
+    }
+
+    /**
+     * Recursively build the sub-tree of the lights in the receiving range of {@link #_lights}.
+     * The range is split at the median of the widest axis of the lights positions.
+     *
+     * @param start The first index in the range
+     * @param end   The index after the last one in the range
+     * @return The index of the new node
+     */
+    private int build(int start, int end) {
+        int node = _nodeCount++;
+        int b = 6 * node;
+        for (int axis = 0; axis < 3; ++axis) {
+            _bounds[b + axis] = Double.POSITIVE_INFINITY;
+            _bounds[b + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+        _kC[node] = _kL[node] = _kQ[node] = Double.POSITIVE_INFINITY;
+        for (int i = start; i < end; ++i) {
+            PointLight light = _lights[i];
+            double[] position = coordinates(light.getPosition());
+            for (int axis = 0; axis < 3; ++axis) {
+                _bounds[b + axis] = Math.min(_bounds[b + axis], position[axis]);
+                _bounds[b + axis + 3] = Math.max(_bounds[b + axis + 3], position[axis]);
+            }
+            _power[node] += light.getIntensity().getMax();
+            _kC[node] = Math.min(_kC[node], light.getKc());
+            _kL[node] = Math.min(_kL[node], light.getKl());
+            _kQ[node] = Math.min(_kQ[node], light.getKq());
+        }
+
+        if (end - start == 1) {
+            _leaf[node] = true;
+            _offset[node] = start;
+            return node;
+        }
+
+        // Sort the range by the widest axis and split it in the middle
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (_bounds[b + a + 3] - _bounds[b + a] > _bounds[b + axis + 3] - _bounds[b + axis]) axis = a;
+        sort(start, end, axis);
+        int mid = (start + end) / 2;
+
+        build(start, mid);
+        _offset[node] = build(mid, end);
+        return node;
+    }
+
+    /**
+     * Sort a range of the lights (and their indices) by their position on an axis
+     *
+     * @param start The first index in the range
+     * @param end   The index after the last one in the range
+     * @param axis  The axis (0 - x, 1 - y, 2 - z)
+     */
+    private void sort(int start, int end, int axis) {
+        // The positions on the axis are read once, before the sort
+        double[] keys = new double[end - start];
+        Integer[] order = new Integer[end - start];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+            keys[i] = coordinates(_lights[start + i].getPosition())[axis];
+        }
+        Arrays.sort(order, (i, j) -> Double.compare(keys[i], keys[j]));
+
+        PointLight[] lights = new PointLight[order.length];
+        int[] indices = new int[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            lights[i] = _lights[start + order[i]];
+            indices[i] = _indices[start + order[i]];
+        }
+        System.arraycopy(lights, 0, _lights, start, order.length);
+        System.arraycopy(indices, 0, _indices, start, order.length);
+    }
+
+    /**
+     * Return the coordinates of a point as an array
+     *
+     * @param point The point
+     * @return The x, y and z values (double[])
+     */
+    private static double[] coordinates(Point3D point) {
+        return new double[]{point.getX(), point.getY(), point.getZ()};
+    }
+}
@@ -2,6 +2,7 @@ package renderer;
 
 import primitives.Color;
 import primitives.Ray;
+import primitives.Sampler;
 import scene.Scene;
 
 /**
@@ -33,4 +34,37 @@ public abstract class RayTracerBase {
      * @return The color of the intersection point (or background if no intersections exist) (Color)
      */
     public abstract Color traceRay(Ray ray);
+
+    /**
+     * Trace a packet of rays and calculate the color of each of them (see {@link #traceRay(Ray)}).
+     * A ray tracer may trace the rays of a coherent packet (e.g. rays through neighbour pixels) together.
+     *
+     * @param rays The rays to trace after (Ray[])
+     * @return The colors of the rays, in the order of the rays (Color[])
+     */
+    public Color[] traceRays(Ray[] rays) {
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; ++i)
+            colors[i] = traceRay(rays[i]);
+        return colors;
+    }
+
+    /**
+     * Hand the sampler of the camera to the ray tracer before the render, whose sequences are started
+     * by the render for each tile. A ray tracer which uses random numbers takes them from it
+     * (unless it was set a sampler of its own), so its image is reproducible as the camera's samples.
+     *
+     * @param sampler The sampler of the camera
+     */
+    void setCameraSampler(Sampler sampler) {
+        // The basic ray tracing doesn't use random numbers
+    }
+
+    /**
+     * Prepare the ray tracer for a new render, before any ray is traced. The scene may be changed between
+     * renders, so whatever the ray tracer calculated from the scene is calculated again.
+     */
+    void startRender() {
+        // The basic ray tracing keeps nothing calculated from the scene
+    }
 }
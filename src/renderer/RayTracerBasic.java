@@ -1,11 +1,12 @@
 package renderer;
 
 import elements.LightSource;
+import geometries.Intersectable;
 import geometries.Intersectable.GeoPoint;
 import primitives.*;
 import scene.Scene;
 
-import java.util.List;
+import java.util.Arrays;
 
 import static primitives.Util.alignZero;
 
@@ -28,11 +29,79 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private static final double MIN_CALC_COLOR_K = 0.001;
 
+    /**
+     * The default maximal color value of all the light sources skipped at a point
+     * (half of a displayed color level, so the displayed color is changed by rounding at most)
+     */
+    private static final double MAX_SKIPPED_COLOR = 0.5;
+
     /**
      * The starting impact value of ray on intersection point
      */
     private static final double INITIAL_K = 1.0;
 
+    /**
+     * The scratch register the color of the traced ray is accumulated in
+     */
+    private static final int COLOR_REGISTER = 0;
+
+    /**
+     * The scratch register for the vector calculations
+     */
+    private static final int VECTOR_REGISTER = 0;
+
+    /**
+     * The scratch register of the probability of a sampled light
+     */
+    private static final int PDF_REGISTER = 0;
+
+    /**
+     * The continuous rays stack of each thread
+     */
+    private static final ThreadLocal<RayStack> RAY_STACK = ThreadLocal.withInitial(RayStack::new);
+
+    /**
+     * The last geometry which blocked each light source in each thread (shadow rays of neighbour points
+     * toward the same light source are usually blocked by the same geometry)
+     */
+    private final ThreadLocal<Intersectable[][]> _occluders = ThreadLocal.withInitial(() -> new Intersectable[0][]);
+
+    /**
+     * The maximal number of intersection levels of a traced ray
+     */
+    private int _maxLevel = MAX_CALC_COLOR_LEVEL;
+
+    /**
+     * The maximal color value (of each component) of all the light sources skipped at a point
+     */
+    private double _maxSkippedColor = MAX_SKIPPED_COLOR;
+
+    /**
+     * The number of the lights sampled from the light tree at a point, 0 - all the lights are calculated
+     */
+    private int _lightSamples = 0;
+
+    /**
+     * The sampler of the lights when the ray tracer is used without a render and without a sampler of its own
+     * (a fixed seed, so the image is reproducible)
+     */
+    private static final Sampler DEFAULT_SAMPLER = new SplittableSampler(0);
+
+    /**
+     * The sampler of the lights, null for the sampler of the camera of the render
+     */
+    private Sampler _sampler = null;
+
+    /**
+     * The sampler of the camera of the last render (see {@link #setCameraSampler(Sampler)})
+     */
+    private Sampler _cameraSampler = null;
+
+    /**
+     * The tree of the point lights of the scene (built on the first use of the many lights mode in each render)
+     */
+    private volatile LightTree _lightTree;
+
     //--------------------------------------------------- METHODS ---------------------------------------------------//
 
     /**
@@ -62,127 +131,346 @@ public class RayTracerBasic extends RayTracerBase {
     }
 
     /**
-     * Calculate the color of the receiving point
+     * Trace a packet of rays: the closest intersections of all the rays are found together through the
+     * geometries, and the color of each intersection (including its continuous rays for the reflection and the
+     * refraction, which are not coherent anymore) is calculated ray by ray
+     *
+     * @param rays The rays to trace after (Ray[])
+     * @return The colors of the rays, in the order of the rays (Color[])
+     */
+    @Override
+    public Color[] traceRays(Ray[] rays) {
+        double[] maxDistances = new double[rays.length];
+        Arrays.fill(maxDistances, Double.POSITIVE_INFINITY);
+        GeoPoint[] closest = new GeoPoint[rays.length];
+        _scene._geometries.findClosestGeoIntersections(rays, maxDistances, closest);
+
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; ++i)
+            colors[i] = closest[i] == null ? _scene._background : calcColor(closest[i], rays[i]);
+        return colors;
+    }
+
+    /**
+     * Set the maximal number of intersection levels of a traced ray (the depth of the continuous rays).
+     * The continuous rays are traced by an explicit stack, so a large level (e.g. for scenes with many
+     * transparent objects) does not deepen the call stack.
+     *
+     * @param maxLevel The maximal level, at least 1 (1 - no reflection and refraction)
+     * @return this (RayTracerBasic)
+     * @throws IllegalArgumentException if the level is smaller than 1
+     */
+    public RayTracerBasic setMaxLevel(int maxLevel) {
+        if (maxLevel < 1)
+            throw new IllegalArgumentException("The maximal level must be at least 1");
+        _maxLevel = maxLevel;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the maximal color value (of each component) of all the light sources skipped at a point.
+     * A light source is skipped (without its shading and its shadow ray) if the point is out of its influence
+     * radius (see {@link LightSource#getRadius(double)}) for an equal part of this value.
+     * The default is half of a displayed color level, a larger value skips more light sources
+     * (e.g. in scenes with hundreds of small lights) and may change the image a little.
+     *
+     * @param maxSkippedColor The maximal skipped color value (not negative)
+     * @return this (RayTracerBasic)
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public RayTracerBasic setMaxSkippedColor(double maxSkippedColor) {
+        if (maxSkippedColor < 0)
+            throw new IllegalArgumentException("The maximal skipped color cannot be negative");
+        _maxSkippedColor = maxSkippedColor;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the many lights mode: the point lights (and spot lights) of the scene are kept in a spatial tree,
+     * and at each point a fixed number of them is sampled in proportion to their estimated intensity at the point
+     * (the other light sources, e.g. directional lights, are always calculated). The cost of a point depends on the
+     * number of the samples and not on the number of the lights, and the image is noisy in place of it.
+     *
+     * @param lightSamples The number of the sampled lights at each point, 0 to calculate all the lights (the default)
+     * @return this (RayTracerBasic)
+     * @throws IllegalArgumentException if the number is negative
+     */
+    public RayTracerBasic setLightSamples(int lightSamples) {
+        if (lightSamples < 0)
+            throw new IllegalArgumentException("The number of the light samples cannot be negative");
+        _lightSamples = lightSamples;
+
+        // return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the sampler of the lights in the many lights mode.
+     * By default the sampler of the camera of the render is used, whose sequences are started by the render
+     * for each tile, so the image is reproducible (for the same camera sampler seed).
+     *
+     * @param sampler The sampler, null for the sampler of the camera
+     * @return this (RayTracerBasic)
+     */
+    public RayTracerBasic setSampler(Sampler sampler) {
+        _sampler = sampler;
+
+        // return this for chaining
+        return this;
+    }
+
+    @Override
+    void setCameraSampler(Sampler sampler) {
+        _cameraSampler = sampler;
+    }
+
+    /**
+     * Drop the light tree, the light sources may be moved, replaced or changed since the last render,
+     * so the tree is built again on its first use in the render
+     */
+    @Override
+    void startRender() {
+        _lightTree = null;
+    }
+
+    /**
+     * Return the sampler of the lights: the sampler of the ray tracer, or else the sampler of the camera
+     * of the render, or else the default sampler
+     *
+     * @return The sampler (Sampler)
+     */
+    private Sampler sampler() {
+        return _sampler != null ? _sampler : _cameraSampler != null ? _cameraSampler : DEFAULT_SAMPLER;
+    }
+
+    /**
+     * Calculate the color of the receiving point.
+     * The color is accumulated in a scratch register of the current thread, so the
+     * intermediate colors of the lights and the continuous rays are not allocated.
+     * The continuous rays (reflection and refraction) wait in a stack of the current thread instead of a
+     * recursion, and are taken from it in the order of the recursion (the reflected ray and all its
+     * continuous rays before the refracted ray), so the color is accumulated in the same order.
      *
      * @param geopoint The intersection point (and the intersected geometry) (GeoPoint)
      * @param ray      The intersect ray (Ray)
      * @return The final color (Color)
      */
     private Color calcColor(GeoPoint geopoint, Ray ray) {
-        return calcColor(geopoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
-                .add(_scene._ambientLight.getIntensity());
+        Scratch scratch = Scratch.get();
+        scratch.setColor(COLOR_REGISTER, _scene._ambientLight.getIntensity());
+
+        RayStack stack = RAY_STACK.get();
+        stack.clear();
+        GeoPoint intersection = geopoint;
+        int level = _maxLevel;
+        double k = INITIAL_K;
+        while (true) {
+            if (intersection == null)
+                // No intersection - the color of the continuous ray is the background
+                scratch.addColor(COLOR_REGISTER, _scene._background, k);
+            else
+                calcColor(intersection, ray, level, k, stack, scratch);
+
+            if (stack.isEmpty()) break;
+            stack.pop();
+            ray = stack._ray;
+            level = stack._level;
+            k = stack._k;
+            intersection = findClosestIntersection(ray);
+        }
+        return scratch.toColor(COLOR_REGISTER);
     }
 
     /**
-     * Calculate the color on specific point on the object
+     * Calculate the color on specific point on the object and add it to the color register,
+     * scaled by the attenuation factor of the ray, and push its continuous rays to the stack
      *
      * @param intersection The intersected geometry object with the closest intersection point with the ray
      * @param ray          The intersect ray
      * @param level        The number of intersection levels the ray intersect (the depth of continuous ray to check)
      * @param k            The attenuation factor of the intersected ray
-     * @return The color of the point
+     * @param stack        The stack of the continuous rays of the current thread
+     * @param scratch      The scratch registers of the current thread
      */
-    private Color calcColor(GeoPoint intersection, Ray ray, int level, double k) {
+    private void calcColor(GeoPoint intersection, Ray ray, int level, double k, RayStack stack, Scratch scratch) {
         // The emission color of the intersected geometry object
-        Color color = intersection._geometry.getEmission();
+        scratch.addColor(COLOR_REGISTER, intersection._geometry.getEmission(), k);
+
+        // The normal of the intersected geometry object at the intersection point (for both effects)
+        Vector n = intersection.getNormal();
 
         // Adding the local effects on the point (e.g diffuse and specular)
-        color = color.add(calcLocalEffects(intersection, ray, k));
+        calcLocalEffects(intersection, ray, n, k, scratch);
 
-        // If is the last level return the final color, else calculate the global effects (e.g reflected and reflected rays)
-        return 1 == level ? color : color.add(calcGlobalEffects(intersection, ray, level, k));
+        // If is not the last level push the global effects (e.g reflected and reflected rays)
+        if (1 != level) calcGlobalEffects(intersection, ray, n, level, k, stack, scratch);
     }
 
     /**
-     * Calculate the diffuse and the specular on the object
+     * Calculate the diffuse and the specular on the object and add them to the color register
      *
      * @param intersection The intersected geometry object with the closest intersection point with the ray
      * @param ray          The intersect ray
+     * @param n            The normal vector to the intersected geometry object at the intersection point
      * @param k            Attenuation factor of the impact of ray on point
-     * @return The diffuse and the specular on the object
+     * @param scratch      The scratch registers of the current thread
      */
-    private Color calcLocalEffects(GeoPoint intersection, Ray ray, double k) {
+    private void calcLocalEffects(GeoPoint intersection, Ray ray, Vector n, double k, Scratch scratch) {
         // Preparing the values for calculating
         // v = the direction vector of the ray
         Vector v = ray.getDir();
-        // n = the normal vector to the intersected geometry object
-        Vector n = intersection._geometry.getNormal(intersection._point);
 
         // If the ray and the normal are orthogonal, no color to add (equal to BLACK color)
         double nv = alignZero(n.dotProduct(v));
-        if (nv == 0) return Color.BLACK;
+        if (nv == 0) return;
 
         // Preparing the values for calculating
         // The material type of the intersected geometry object
         Material material = intersection._geometry.getMaterial();
-        // The shininess attenuation of the intersected object
-        int nShininess = material.nShininess;
         // The diffuse attenuation of the intersected object
         double kd = material.kD;
         // The specular attenuation of the intersected object
         double ks = material.kS;
-        // Initial the final color to BLACK (equal to (0,0,0))
-        Color color = Color.BLACK;
 
+        // The last occluder of each light source in the current thread
+        Intersectable[][] occluders = occluders();
+
+        // Many lights mode: sample some of the lights by their importance instead of calculating all of them
+        if (_lightSamples > 0) {
+            calcSampledLightsEffects(intersection, v, n, nv, material, k, occluders, scratch);
+            return;
+        }
+
+        // The minimal intensity of a light source which can add to the color: all the skipped light sources
+        // together add less than the skipped color value (the diffuse and the specular factors are at most kd + ks).
+        // The light sources which are farther than their radius from the point are skipped
+        double minIntensity = _maxSkippedColor / (k * (kd + ks) * _scene._lightSourceList.size());
+
+        int light = 0;
         // For all light source in the scene, calculate his impact on the intersected geometry object
         for (LightSource lightSource : _scene._lightSourceList) {
-            // Preparing the values for calculating
-            // l = the normalized vector from the light source to the intersection point
-            Vector l = lightSource.getL(intersection._point);
-            // nl = the dot product between n and l to check if nl and nv have the same sign
-            // If they have the same sign the ray from the light source visible to the camera
-            double nl = alignZero(n.dotProduct(l));
-            // if sign(nl) == sing(nv)
-            if (nl * nv > 0) {
-                // The general transparency attenuation factor
-                double ktr = transparency(lightSource, l, n, intersection);
-                // If the impact of the lights are to small don't calculate the rest (diffuse and specular etc)
-                if (ktr * k > MIN_CALC_COLOR_K) {
-                    // The intensity of the light in the intersection point after attenuation
-                    Color lightIntensity = lightSource.getIntensity(intersection._point).scale(ktr);
-                    // Add to the diffuse and the specular of the light to the final color of the intersection point
-                    color = color.add(calcDiffusive(kd, lightIntensity, nl), calcSpecular(ks, l, n, v, nShininess, lightIntensity, nl));
-                }
+            Intersectable[] occluder = occluders[light++];
+            // If the light cannot add to the color, don't calculate its impact and don't check its shadow
+            if (lightSource.getDistance(intersection._point) > lightSource.getRadius(minIntensity)) continue;
+
+            calcLightEffect(lightSource, occluder, intersection, v, n, nv, material, k, scratch);
+        }
+    }
+
+    /**
+     * Calculate the diffuse and the specular of the sampled lights on the object and add them to the color register.
+     * The light sources which are not in the light tree (e.g. directional lights) are all calculated, and the
+     * point lights are sampled from the tree in proportion to their estimated intensity at the point.
+     * The impact of each sampled light is divided by its probability and by the number of the samples,
+     * so the expected color is the color of all the lights.
+     *
+     * @param intersection The intersected geometry object with the closest intersection point with the ray
+     * @param v            The direction vector of the ray
+     * @param n            The normal vector to the intersected geometry object at the intersection point
+     * @param nv           The dot product between the normal and v
+     * @param material     The material of the intersected geometry object
+     * @param k            Attenuation factor of the impact of ray on point
+     * @param occluders    The last occluder of each light source in the current thread
+     * @param scratch      The scratch registers of the current thread
+     */
+    private void calcSampledLightsEffects(GeoPoint intersection, Vector v, Vector n, double nv, Material material,
+                                          double k, Intersectable[][] occluders, Scratch scratch) {
+        LightTree tree = getLightTree();
+        for (int i = 0; i < tree._others.length; ++i)
+            calcLightEffect(tree._others[i], occluders[tree._othersIndices[i]], intersection, v, n, nv, material, k, scratch);
+        if (tree.isEmpty()) return;
+
+        for (int i = 0; i < _lightSamples; ++i) {
+            int slot = tree.sample(intersection._point, sampler().nextDouble(), scratch, PDF_REGISTER);
+            calcLightEffect(tree.light(slot), occluders[tree.index(slot)], intersection, v, n, nv, material,
+                    k / (_lightSamples * scratch.getValue(PDF_REGISTER)), scratch);
+        }
+    }
+
+    /**
+     * Return the tree of the point lights of the scene, build it if it is not built yet (it is dropped at the start
+     * of each render, see {@link #startRender()}) or if light sources were added to the scene after it was built
+     *
+     * @return The light tree (LightTree)
+     */
+    private LightTree getLightTree() {
+        LightTree tree = _lightTree;
+        if (tree == null || tree._size != _scene._lightSourceList.size()) {
+            synchronized (this) {
+                tree = _lightTree;
+                if (tree == null || tree._size != _scene._lightSourceList.size())
+                    _lightTree = tree = new LightTree(_scene._lightSourceList);
             }
         }
-        // Return the final color
-        return color;
+        return tree;
     }
 
     /**
-     * Calculate the diffuse of the light source on the intersection point
-     * in the intersected geometry object
+     * Calculate the diffuse and the specular of one light source on the object and add them to the color register
      *
-     * @param kD             Diffuse attenuation factor
-     * @param nl             The normalized vector from the position point (of the light source) to intersection point
-     *                       dot (product) the normal vector to the object
-     * @param lightIntensity The light intensity of the light source
-     * @return The diffuse (intensity) color on the object (Color)
-     */
-    private Color calcDiffusive(double kD, Color lightIntensity, double nl) {
-        // Calculate the diffuse intensity color
-        Color diffuse = lightIntensity.scale(kD * Math.abs(nl));
-        return diffuse;
+     * @param lightSource  The light source
+     * @param occluder     The last geometry which blocked the light in the current thread (in its first cell, updated)
+     * @param intersection The intersected geometry object with the closest intersection point with the ray
+     * @param v            The direction vector of the ray
+     * @param n            The normal vector to the intersected geometry object at the intersection point
+     * @param nv           The dot product between the normal and v
+     * @param material     The material of the intersected geometry object
+     * @param k            Attenuation factor of the impact of ray on point
+     * @param scratch      The scratch registers of the current thread
+     */
+    private void calcLightEffect(LightSource lightSource, Intersectable[] occluder, GeoPoint intersection,
+                                 Vector v, Vector n, double nv, Material material, double k, Scratch scratch) {
+        // Preparing the values for calculating
+        // l = the normalized vector from the light source to the intersection point
+        Vector l = lightSource.getL(intersection._point);
+        // nl = the dot product between n and l to check if nl and nv have the same sign
+        // If they have the same sign the ray from the light source visible to the camera
+        double nl = alignZero(n.dotProduct(l));
+        // if sign(nl) == sing(nv)
+        if (nl * nv > 0) {
+            // The general transparency attenuation factor
+            double ktr = transparency(lightSource, l, n, intersection, occluder);
+            // If the impact of the lights are to small don't calculate the rest (diffuse and specular etc)
+            if (ktr * k > MIN_CALC_COLOR_K) {
+                // Add the diffuse and the specular of the light (after attenuation) to the color register
+                double factor = calcDiffusive(material.kD, nl) + calcSpecular(material, l, v, nl, nv);
+                scratch.addColor(COLOR_REGISTER, lightSource.getIntensity(intersection._point), k * ktr * factor);
+            }
+        }
     }
 
     /**
-     * Calculate the specular of the light source on the intersection point
+     * Calculate the diffuse factor of the light source on the intersection point
      * in the intersected geometry object
      *
-     * @param kS             Specular attenuation factor
-     * @param l              The normalized vector from the position point to attached point
-     * @param n              The normal vector to the object
-     * @param v              The direction vector from the camera
-     * @param nShininess     Shininess attenuation factor
-     * @param lightIntensity The light intensity
-     * @return The specular intensity color on the object (color)
-     */
-    private Color calcSpecular(double kS, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity, double nl) {
-        // Calculate the return vector of the specular from the light source to the camera
-        Vector r = l.subtract(n.scale(nl).scale(2));
-        // Calculate the specular intensity color
-        Color specular = lightIntensity.scale(kS * Math.pow(Math.max(0, v.scale(-1).dotProduct(r)), nShininess));
-        return specular;
+     * @param kD Diffuse attenuation factor
+     * @param nl The normalized vector from the position point (of the light source) to intersection point
+     *           dot (product) the normal vector to the object
+     * @return The diffuse factor of the light intensity (double)
+     */
+    private double calcDiffusive(double kD, double nl) {
+        return kD * Math.abs(nl);
+    }
+
+    /**
+     * Calculate the specular factor of the light source on the intersection point
+     * in the intersected geometry object.
+     * The return vector r = l - 2 * nl * n is not created: -v * r = 2 * nl * nv - v * l
+     *
+     * @param material The material of the intersected geometry (its specular factor and shininess)
+     * @param l        The normalized vector from the position point to attached point
+     * @param v        The direction vector from the camera
+     * @param nl       The dot product between the normal and l
+     * @param nv       The dot product between the normal and v
+     * @return The specular factor of the light intensity (double)
+     */
+    private double calcSpecular(Material material, Vector l, Vector v, double nl, double nv) {
+        double minusVR = 2 * nl * nv - v.dotProduct(l);
+        return material.kS * material.powShininess(Math.max(0, minusVR));
     }
 
     /**
@@ -192,119 +480,112 @@ public class RayTracerBasic extends RayTracerBase {
      * @param l        The ray from the light source
      * @param n        The normal to the intersection point
      * @param geoPoint The intersection point
+     * @param occluder The last geometry which blocked the light in the current thread (in its first cell, updated)
      * @return The shadowing factor (Transparency factor)
      */
-    private double transparency(LightSource light, Vector l, Vector n, GeoPoint geoPoint) {
+    private double transparency(LightSource light, Vector l, Vector n, GeoPoint geoPoint, Intersectable[] occluder) {
         // Calculate the continuous ray from the intersection point
         Ray lightRay = new Ray(geoPoint._point, l.scale(-1), n);
 
-        // Check if there have any intersection between the object
-        // from the intersection point to the light source
-        List<GeoPoint> intersections = _scene._geometries.findGeoIntersections(lightRay);
-        // If no intersection the object is translucent (attenuation factor equal to 1)
-        if (intersections == null) return 1.0;
-
         // Calculate the distance from the light source to the intersection point
         double lightDistance = light.getDistance(geoPoint._point);
-        // Initiate the transparency to 1 (the object is translucent)
-        double ktr = 1.0;
-
-        // For each intersection point with the geometries check if have an intersection
-        // between the intersection point to the light source
-        for (GeoPoint gp : intersections) {
-            // If have any object the ray cross
-            if (alignZero(gp._point.distance(geoPoint._point) - lightDistance) <= 0)
-                // The intensity of the light is attenuate by the transparency attenuation factor
-                ktr *= gp._geometry.getMaterial()._kT;
-            // If the intensity of the light ray is too small, the object is opaque
-            if (ktr < MIN_CALC_COLOR_K) return 0.0;
+
+        // The ray head is moved from the intersection point, so convert the light distance (from the
+        // intersection point) to the parameter along the ray: the point P on the ray with |P - point| = lightDistance
+        double tPoint = lightRay.getParameter(geoPoint._point);
+        double offsetSquared = geoPoint._point.distanceSquared(lightRay.getP0()) - tPoint * tPoint;
+        double maxDistance = tPoint + Math.sqrt(Math.max(0, lightDistance * lightDistance - offsetSquared));
+
+        // The geometry which blocked the previous shadow ray of the light most likely blocks this one too.
+        // If it blocks the light alone the whole scene blocks it (the other geometries only attenuate it more),
+        // otherwise (e.g. it is partially transparent or is missed) the transparency is calculated by the scene
+        Intersectable last = occluder[0];
+        if (last != null && last.findTransparency(lightRay, maxDistance, 1.0, MIN_CALC_COLOR_K) == 0.0)
+            return 0.0;
+
+        // Attenuate the light by the transparency of all the objects between the point and the light source,
+        // the search stops as soon as the light is blocked (and the blocking geometry is kept for the next ray)
+        return _scene._geometries.findTransparency(lightRay, maxDistance, 1.0, MIN_CALC_COLOR_K, occluder);
+    }
+
+    /**
+     * Return the last occluders of the light sources in the current thread, one cell array per light source
+     * (in the order of the light sources list), grown if light sources were added to the scene
+     *
+     * @return The occluders (Intersectable[][])
+     */
+    private Intersectable[][] occluders() {
+        Intersectable[][] occluders = _occluders.get();
+        int lights = _scene._lightSourceList.size();
+        if (occluders.length < lights) {
+            occluders = Arrays.copyOf(occluders, lights);
+            for (int i = 0; i < lights; ++i)
+                if (occluders[i] == null) occluders[i] = new Intersectable[1];
+            _occluders.set(occluders);
         }
-        return ktr;
+        return occluders;
     }
 
     /**
-     * Find all the intersection between the ray and the geometry object
-     * and peak the closest intersection GeoPoint to the ray
+     * Find the closest intersection GeoPoint between the ray and the geometry objects
+     * (without collecting all the intersections)
      *
      * @param ray The intersect ray (Ray)
-     * @return The closest intersection point (GeoPoint)
+     * @return The closest intersection point (GeoPoint), null if there is no intersection
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        // Find all the intersection GeoPoints
-        List<GeoPoint> intersections = _scene._geometries.findGeoIntersections(ray);
-        // If no any intersection, return null
-        if (intersections == null) return null;
-
-        // Find the closest intersection GeoPoint to the ray and return him
-        return ray.getClosestGeoPoint(intersections);
+        return _scene._geometries.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
     }
 
     /**
-     * Calculate all the continues rays effects (A.K refraction and reflection)
+     * Push all the continues rays (A.K refraction and reflection) to the stack, with their attenuation factors.
+     * The color of a continuous ray is added to the color register scaled by its total attenuation factor
+     * (the product of the factors along the path, so it is the same as scaling the color at each level).
      *
      * @param intersection The intersection point
      * @param ray          the intersect ray
-     * @param level        the number of the rest layers the ray can go throw (the depth of the recursion)
+     * @param n            The normal of the intersected geometry object at the intersection point
+     * @param level        the number of the rest layers the ray can go throw (the depth of the continuous rays)
      * @param k            Attenuation factor
-     * @return The effected color (Color)
+     * @param stack        The stack of the continuous rays of the current thread
+     * @param scratch      The scratch registers of the current thread
      */
-    private Color calcGlobalEffects(GeoPoint intersection, Ray ray, int level, double k) {
+    private void calcGlobalEffects(GeoPoint intersection, Ray ray, Vector n, int level, double k,
+                                   RayStack stack, Scratch scratch) {
         // Prepare the values for calculation
-        // Initiate the result color to BLACK (equal to (0,0,0))
-        Color color = Color.BLACK;
-        // The normal of the intersected geometry object at the intersection point
-        Vector n = intersection._geometry.getNormal(intersection._point);
         // The direction of the light source ray
         Vector v = ray.getDir();
         // The material type of the intersected geometry object
         Material material = intersection._geometry.getMaterial();
 
-        // Update the reflection attenuation factor
-        double kkr = k * material._kR;
-        // If the impact is not very small, calculate the global effects
-        if (kkr > MIN_CALC_COLOR_K)
-            // Calculate the reflection
-            color = calcGlobalEffect(constructReflectedRay(intersection._point, v, n), level, material._kR, kkr);
-
+        // The refracted ray is pushed first so the reflected ray (and its continuous rays) is taken first
         // Update the refraction (transparency) attenuation factor
         double kkt = k * material._kT;
         // If the impact is not very small, calculate the global effects
         if (kkt > MIN_CALC_COLOR_K)
-            // Calculate the refracted effect and add it to the result color
-            color = color.add(calcGlobalEffect(constructRefractedRay(intersection._point, v, n), level, material._kT, kkt));
-        // Return the final color
-        return color;
-    }
+            stack.push(constructRefractedRay(intersection._point, v, n), level - 1, kkt);
 
-    /**
-     * Recursion function to calculate all the chaining (continuous) effects
-     *
-     * @param ray   The intersect ray
-     * @param level The number of the rest layers the ray can go throw (the depth of the recursion)
-     * @param kx    Attenuation factor (x for reflection or refraction (transparency))
-     * @param kkx   Attenuation factor after Attenuation
-     * @return The color of the point (Color)
-     */
-    private Color calcGlobalEffect(Ray ray, int level, double kx, double kkx) {
-        // Find the closest intersection point of the ray and the geometry object
-        GeoPoint gp = findClosestIntersection(ray);
-        // If no intersections the color is the background, otherwise calculate the color
-        return (gp == null ? _scene._background : calcColor(gp, ray, level - 1, kkx)).scale(kx);
+        // Update the reflection attenuation factor
+        double kkr = k * material._kR;
+        // If the impact is not very small, calculate the global effects
+        if (kkr > MIN_CALC_COLOR_K)
+            stack.push(constructReflectedRay(intersection._point, v, n, scratch), level - 1, kkr);
     }
 
     /**
      * Calculate the reflected ray
      *
-     * @param point The intersect point
-     * @param v     The direction of the light ray
-     * @param n     The normal vector of the geometry in the intersection point
+     * @param point   The intersect point
+     * @param v       The direction of the light ray
+     * @param n       The normal vector of the geometry in the intersection point
+     * @param scratch The scratch registers of the current thread
      * @return The reflected ray (Ray)
      */
-    private Ray constructReflectedRay(Point3D point, Vector v, Vector n) {
+    private Ray constructReflectedRay(Point3D point, Vector v, Vector n, Scratch scratch) {
 
-        // Calculate the reflection ray
+        // Calculate the reflection ray (r = v - 2 * nl * n) in place
         double nl = alignZero(n.dotProduct(v));
-        Vector r = v.subtract(n.scale(nl).scale(2));
+        Vector r = scratch.setVector(VECTOR_REGISTER, v).addScaled(VECTOR_REGISTER, n, -2 * nl).toVector(VECTOR_REGISTER);
 
         // Create the reflection ray, and return it
         return new Ray(point, r, n);
@@ -322,4 +603,96 @@ public class RayTracerBasic extends RayTracerBase {
         // Create the refracted ray and return it
         return new Ray(point, v, n);
     }
-}
\ No newline at end of file
+
+    /**
+     * Stack of the continuous rays which wait to be traced, each with its level and its total attenuation factor.
+     * The entries are kept in parallel arrays which grow by need, and the popped entry is read from the fields.
+     */
+    private static final class RayStack {
+        /**
+         * The initial capacity of the stack
+         */
+        private static final int INITIAL_CAPACITY = 2 * MAX_CALC_COLOR_LEVEL;
+
+        /**
+         * The rays of the entries
+         */
+        private Ray[] _rays = new Ray[INITIAL_CAPACITY];
+
+        /**
+         * The levels of the entries
+         */
+        private int[] _levels = new int[INITIAL_CAPACITY];
+
+        /**
+         * The total attenuation factors of the entries
+         */
+        private double[] _ks = new double[INITIAL_CAPACITY];
+
+        /**
+         * The number of entries in the stack
+         */
+        private int _size = 0;
+
+        /**
+         * The ray of the last popped entry
+         */
+        private Ray _ray;
+
+        /**
+         * The level of the last popped entry
+         */
+        private int _level;
+
+        /**
+         * The total attenuation factor of the last popped entry
+         */
+        private double _k;
+
+        /**
+         * Remove all the entries
+         */
+        private void clear() {
+            Arrays.fill(_rays, 0, _size, null);
+            _size = 0;
+            _ray = null;
+        }
+
+        /**
+         * Check whether the stack is empty
+         *
+         * @return True if there are no entries
+         */
+        private boolean isEmpty() {
+            return _size == 0;
+        }
+
+        /**
+         * Push an entry to the stack
+         *
+         * @param ray   The continuous ray
+         * @param level The number of the rest layers the ray can go throw
+         * @param k     The total attenuation factor of the ray
+         */
+        private void push(Ray ray, int level, double k) {
+            if (_size == _rays.length) {
+                _rays = Arrays.copyOf(_rays, 2 * _size);
+                _levels = Arrays.copyOf(_levels, 2 * _size);
+                _ks = Arrays.copyOf(_ks, 2 * _size);
+            }
+            _rays[_size] = ray;
+            _levels[_size] = level;
+            _ks[_size++] = k;
+        }
+
+        /**
+         * Pop the last entry from the stack into the fields {@link #_ray}, {@link #_level} and {@link #_k}
+         */
+        private void pop() {
+            _ray = _rays[--_size];
+            _rays[_size] = null;
+            _level = _levels[_size];
+            _k = _ks[_size];
+        }
+    }
+}
@@ -4,13 +4,17 @@ import elements.Camera;
 import primitives.Color;
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Sampler;
 
 import java.security.PublicKey;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.MissingResourceException;
-
-import static primitives.Util.random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Render class responsible to render the scene
@@ -83,6 +87,122 @@ public class Render {
      */
     private boolean adaptiveGrid = false;
 
+    /**
+     * The default perceptual difference between corner colors which are in the same variety
+     * (about a difference of 10 in one channel)
+     */
+    public static final double DEFAULT_COLOR_TOLERANCE = 20;
+
+    /**
+     * The maximal depth of the adaptive grid recursion
+     */
+    private int maxAdaptiveDepth = MAX_DEPTH_OF_ADAPTIVE;
+
+    /**
+     * The maximal perceptual difference (see {@link Color#distance(Color)}) between the corner colors
+     * of a sub-pixel that doesn't need deeper grid
+     */
+    private double colorTolerance = DEFAULT_COLOR_TOLERANCE;
+
+    /**
+     * The number of cells of the adaptive grid lattice in a pixel side (the size of the sub-pixels in the maximal depth)
+     */
+    private int latticeSize = 1 << (MAX_DEPTH_OF_ADAPTIVE - STARTING_DEPTH);
+
+    /**
+     * The number of rays cast through each pixel in the last render, by [row][column]
+     */
+    private int[][] raysPerPixel = null;
+
+    /**
+     * The number of rays cast through the current pixel (of each thread)
+     */
+    private final ThreadLocal<int[]> rayCounter = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * The colors of the adaptive grid lattice points which were traced in the current tile (of each thread)
+     */
+    private final ThreadLocal<Map<Long, Color>> cornerCache = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * To keep the colors of the adaptive grid lattice points for the neighbour sub-pixels and pixels (true),
+     * or to trace a ray through a lattice point each time it is needed (false)
+     */
+    private boolean cacheCorners = true;
+
+    /**
+     * The number of rays cast through each pixel when super sampling
+     */
+    private int samplesPerPixel = 100;
+
+    /**
+     * The maximal number of rays cast through each pixel in adaptive sampling
+     * (adaptive sampling is on only if it is bigger than the samples per pixel)
+     */
+    private int maxSamplesPerPixel = 0;
+
+    /**
+     * The tolerance of the standard error of the pixel color (in color units 0-255) in adaptive sampling
+     */
+    private double varianceTolerance = 1;
+
+    /**
+     * The pattern of the sample points in the pixel when super sampling
+     */
+    private SamplingPattern samplingPattern = SamplingPattern.RANDOM;
+
+    /**
+     * The patterns of the sample points in the pixel
+     */
+    public enum SamplingPattern {
+        /**
+         * Independent random points
+         */
+        RANDOM,
+        /**
+         * Random points, one in each column and in each row of the pixel's grid (N-rooks)
+         */
+        STRATIFIED,
+        /**
+         * Low discrepancy Halton sequence (bases 2 and 3), randomly shifted in each pixel
+         */
+        HALTON
+    }
+
+    /**
+     * The size (in pixels) of the square tiles the image is divided to between the threads
+     */
+    private int tileSize = 16;
+
+    /**
+     * The order the tiles are handed out to the threads
+     */
+    private TileOrder tileOrder = TileOrder.HILBERT;
+
+    /**
+     * The orders of handing out the tiles to the threads
+     */
+    public enum TileOrder {
+        /**
+         * Row by row, from the top left tile
+         */
+        SCANLINE,
+        /**
+         * Along a Hilbert curve, so the following tiles (and the geometries they see) are close to each other
+         */
+        HILBERT
+    }
+
+    /**
+     * The maximal side of a ray packet
+     */
+    public static final int MAX_PACKET_SIZE = 8;
+
+    /**
+     * The side (in pixels) of the square packets of primary rays traced together, 1 for tracing ray by ray
+     */
+    private int packetSize = 2;
+
 
     //--------------------------------------------------- SETTERS ---------------------------------------------------//
 
@@ -172,6 +292,56 @@ public class Render {
         return this;
     }
 
+    /**
+     * Set the number of rays cast through each pixel when super sampling
+     *
+     * @param samplesPerPixel The number of rays (positive)
+     * @return this (Render)
+     */
+    public Render setSamplesPerPixel(int samplesPerPixel) {
+        if (samplesPerPixel <= 0)
+            throw new IllegalArgumentException("Samples per pixel must be positive");
+        this.samplesPerPixel = samplesPerPixel;
+
+        // Return this for chaining
+        return this;
+    }
+
+    /**
+     * Set adaptive sampling: after the first samples per pixel (see {@link #setSamplesPerPixel(int)}),
+     * more rays are cast through the pixel until the standard error of its color is within the tolerance
+     * or the maximal number of rays is reached
+     *
+     * @param maxSamplesPerPixel The maximal number of rays, not negative (adaptive sampling is off if it is
+     *                           not bigger than the samples per pixel)
+     * @param tolerance          The tolerance of the standard error of the color (in color units 0-255, positive)
+     * @return this (Render)
+     */
+    public Render setAdaptiveSampling(int maxSamplesPerPixel, double tolerance) {
+        if (maxSamplesPerPixel < 0)
+            throw new IllegalArgumentException("Maximal samples per pixel must not be negative");
+        if (tolerance <= 0)
+            throw new IllegalArgumentException("Tolerance must be positive");
+        this.maxSamplesPerPixel = maxSamplesPerPixel;
+        this.varianceTolerance = tolerance;
+
+        // Return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the pattern of the sample points in the pixel when super sampling
+     *
+     * @param samplingPattern The sampling pattern (SamplingPattern)
+     * @return this (Render)
+     */
+    public Render setSamplingPattern(SamplingPattern samplingPattern) {
+        this.samplingPattern = samplingPattern;
+
+        // Return this for chaining
+        return this;
+    }
+
     /**
      * Set if to cast rays adaptively (true) or not (false)
      *
@@ -185,130 +355,252 @@ public class Render {
         return this;
     }
 
-    //--------------------------------------- PIXEL CLASS ---------------------------------------//
+    /**
+     * Set the maximal depth of the adaptive grid recursion (the sub-pixels side in the maximal depth
+     * is 1/2^(depth-1) of the pixel side)
+     *
+     * @param maxAdaptiveDepth The maximal depth (1 to 16)
+     * @return this (Render)
+     */
+    public Render setMaxAdaptiveDepth(int maxAdaptiveDepth) {
+        if (maxAdaptiveDepth < STARTING_DEPTH || maxAdaptiveDepth > 16)
+            throw new IllegalArgumentException("Adaptive depth must be between 1 and 16");
+        this.maxAdaptiveDepth = maxAdaptiveDepth;
+        this.latticeSize = 1 << (maxAdaptiveDepth - STARTING_DEPTH);
+
+        // Return this for chaining
+        return this;
+    }
+
+    /**
+     * Set if to keep the colors of the adaptive grid lattice points for the neighbour sub-pixels and pixels
+     * of the same tile (true), or to trace a ray through a lattice point each time it is needed (false).
+     * Both give the same image, the cache saves the rays of the shared corners.
+     *
+     * @param cacheCorners boolean
+     * @return this (Render)
+     */
+    public Render setCacheCorners(boolean cacheCorners) {
+        this.cacheCorners = cacheCorners;
+
+        // Return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the maximal perceptual difference (see {@link Color#distance(Color)}) between the corner colors
+     * of a sub-pixel in the adaptive grid that doesn't need deeper grid
+     *
+     * @param colorTolerance The color tolerance (not negative)
+     * @return this (Render)
+     */
+    public Render setColorTolerance(double colorTolerance) {
+        if (colorTolerance < 0)
+            throw new IllegalArgumentException("Color tolerance must not be negative");
+        this.colorTolerance = colorTolerance;
+
+        // Return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the size of the square tiles the image is divided to between the threads
+     *
+     * @param tileSize The tile size in pixels (positive)
+     * @return this (Render)
+     */
+    public Render setTileSize(int tileSize) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        this.tileSize = tileSize;
+
+        // Return this for chaining
+        return this;
+    }
+
+    /**
+     * Set the order the tiles are handed out to the threads
+     *
+     * @param tileOrder The tiles order (TileOrder)
+     * @return this (Render)
+     */
+    public Render setTileOrder(TileOrder tileOrder) {
+        this.tileOrder = tileOrder;
+
+        // Return this for chaining
+        return this;
+    }
 
     /**
-     * Pixel is an internal helper class whose objects are associated with a Render
-     * object that they are generated in scope of. It is used for multithreading in
-     * the Renderer and for follow up its progress.<br/>
-     * There is a main follow up object and several secondary objects - one in each
-     * thread.
+     * Set the side of the square packets of primary rays which are traced together through the geometries.
+     * Without super sampling a packet is the rays of packetSize x packetSize neighbour pixels, and in
+     * (not adaptive) super sampling it is packetSize x packetSize samples of a pixel.
+     * The continuous rays (reflection and refraction) are always traced ray by ray.
      *
-     * @author Dan
+     * @param packetSize The packet side, 1 for tracing ray by ray (1 - {@link #MAX_PACKET_SIZE})
+     * @return this (Render)
      */
-    private class Pixel {
-        private long maxRows = 0;
-        private long maxCols = 0;
-        private long pixels = 0;
-        public volatile int row = 0;
-        public volatile int col = -1;
-        private long counter = 0;
-        private int percents = 0;
-        private long nextCounter = 0;
+    public Render setPacketSize(int packetSize) {
+        if (packetSize < 1 || packetSize > MAX_PACKET_SIZE)
+            throw new IllegalArgumentException("Packet size must be between 1 and " + MAX_PACKET_SIZE);
+        this.packetSize = packetSize;
+
+        // Return this for chaining
+        return this;
+    }
 
+    //--------------------------------------- TILES CLASS ---------------------------------------//
+
+    /**
+     * Tiles is an internal helper class which hands out the tiles of the image to the rendering threads
+     * and follows up the progress.<br/>
+     * The tiles are handed out by an atomic counter and the progress is counted by an atomic counter,
+     * so the threads don't wait for each other on any lock.
+     */
+    private class Tiles {
         /**
-         * The constructor for initializing the main follow up Pixel object
-         *
-         * @param maxRows the amount of pixel rows
-         * @param maxCols the amount of pixel columns
+         * The column and the row of the first pixel of each tile, in the order of handing out
          */
-        public Pixel(int maxRows, int maxCols) {
-            this.maxRows = maxRows;
-            this.maxCols = maxCols;
-            this.pixels = (long) maxRows * maxCols;
-            this.nextCounter = this.pixels / 100;
-            if (Render.this.print)
-                System.out.printf("\r %02d%%", this.percents);
-        }
+        private final int[] origins;
 
         /**
-         * Default constructor for secondary Pixel objects
+         * The number of tiles in a row
          */
-        public Pixel() {
-        }
+        private final int tilesX;
+
+        /**
+         * The number of pixels in the image
+         */
+        private final long pixels;
+
+        /**
+         * The index of the next tile to hand out
+         */
+        private final AtomicInteger next = new AtomicInteger();
+
+        /**
+         * The number of the finished pixels
+         */
+        private final AtomicLong done = new AtomicLong();
+
+        /**
+         * The last printed progress percentage
+         */
+        private final AtomicInteger percents = new AtomicInteger();
 
         /**
-         * Internal function for thread-safe manipulating of main follow up Pixel object
-         * - this function is critical section for all the threads, and main Pixel
-         * object data is the shared data of this critical section.<br/>
-         * The function provides next pixel number each call.
+         * c-tor divide the image to tiles in the order of handing out
          *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return the progress percentage for follow up: if it is 0 - nothing to print,
-         * if it is -1 - the task is finished, any other value - the progress
-         * percentage (only when it changes)
+         * @param nX resolution on X axis (number of pixels in row)
+         * @param nY resolution on Y axis (number of pixels in column)
          */
-        private synchronized int nextP(Pixel target) {
-            ++col;
-            ++this.counter;
-            if (col < this.maxCols) {
-                target.row = this.row;
-                target.col = this.col;
-                if (Render.this.print && this.counter == this.nextCounter) {
-                    ++this.percents;
-                    this.nextCounter = this.pixels * (this.percents + 1) / 100;
-                    return this.percents;
+        public Tiles(int nX, int nY) {
+            tilesX = (nX + tileSize - 1) / tileSize;
+            int tilesY = (nY + tileSize - 1) / tileSize;
+            int count = tilesX * tilesY;
+            pixels = (long) nX * nY;
+
+            // Calculate the position of each tile on the curve
+            long[] keys = new long[count];
+            int side = Integer.highestOneBit(Math.max(1, Math.max(tilesX, tilesY) - 1)) << 1;
+            for (int ty = 0; ty < tilesY; ++ty)
+                for (int tx = 0; tx < tilesX; ++tx) {
+                    int tile = ty * tilesX + tx;
+                    long position = tileOrder == TileOrder.HILBERT ? hilbertIndex(side, tx, ty) : tile;
+                    // Keep the tile index in the low bits, so sorting by the key sorts by the position
+                    keys[tile] = (position << 32) | tile;
                 }
-                return 0;
+            Arrays.sort(keys);
+
+            origins = new int[2 * count];
+            for (int i = 0; i < count; ++i) {
+                int tile = (int) keys[i];
+                origins[2 * i] = (tile % tilesX) * tileSize;
+                origins[2 * i + 1] = (tile / tilesX) * tileSize;
             }
-            ++row;
-            if (row < this.maxRows) {
-                col = 0;
-                target.row = this.row;
-                target.col = this.col;
-                if (Render.this.print && this.counter == this.nextCounter) {
-                    ++this.percents;
-                    this.nextCounter = this.pixels * (this.percents + 1) / 100;
-                    return this.percents;
-                }
-                return 0;
+
+            if (Render.this.print)
+                System.out.printf("\r %02d%%", 0);
+        }
+
+        /**
+         * Render the tiles until all of them are handed out (run by each thread)
+         *
+         * @param nX resolution on X axis (number of pixels in row)
+         * @param nY resolution on Y axis (number of pixels in column)
+         */
+        public void render(int nX, int nY) {
+            int tile;
+            while ((tile = next.getAndIncrement()) < origins.length / 2) {
+                int col0 = origins[2 * tile], row0 = origins[2 * tile + 1];
+                int col1 = Math.min(col0 + tileSize, nX), row1 = Math.min(row0 + tileSize, nY);
+
+                // The corners of the previous tile are not needed anymore
+                cornerCache.get().clear();
+
+                // The random numbers of the tile depend only on its position in the image (not on the thread)
+                _camera.getSampler().startSequence((long) (row0 / tileSize) * tilesX + col0 / tileSize);
+                if (packetSize > 1 && !adaptiveGrid && !superSampling)
+                    castRays(nX, nY, col0, row0, col1, row1);
+                else
+                    for (int row = row0; row < row1; ++row)
+                        for (int col = col0; col < col1; ++col)
+                            castRay(nX, nY, col, row);
+                progress((long) (col1 - col0) * (row1 - row0));
             }
-            return -1;
         }
 
         /**
-         * Public function for getting next pixel number into secondary Pixel object.
-         * The function prints also progress percentage in the console window.
+         * Count the finished pixels and print the progress percentage when it changes
          *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return true if the work still in progress, -1 if it's done
+         * @param count The number of the finished pixels
          */
-        public boolean nextPixel(Pixel target) {
-            int percent = nextP(target);
-            if (Render.this.print && percent > 0)
-                synchronized (this) {
-                    notifyAll();
-                }
-            if (percent >= 0)
-                return true;
-            if (Render.this.print)
+        private void progress(long count) {
+            long finished = done.addAndGet(count);
+            if (!Render.this.print) return;
+
+            int percent = (int) (100 * finished / pixels);
+            // The lock is taken only when the percentage changes (up to 100 times),
+            // so a late thread can't print an older percentage
+            if (percent > percents.get())
                 synchronized (this) {
-                    notifyAll();
+                    if (percent > percents.get()) {
+                        percents.set(percent);
+                        System.out.printf("\r %02d%%", percent);
+                    }
                 }
-            return false;
         }
 
         /**
-         * Debug print of progress percentage - must be run from the main thread
+         * Calculate the index of a cell on the Hilbert curve which fills a square grid
+         *
+         * @param side The side of the grid (power of 2)
+         * @param x    The column of the cell
+         * @param y    The row of the cell
+         * @return The index on the curve (long)
          */
-        public void print() {
-            if (Render.this.print) {
-                while (this.percents < 100) {
-                    try {
-                        synchronized (this) {
-                            wait();
-                        }
-                        System.out.printf("\r %02d%%", this.percents);
-                        System.out.flush();
-                    } catch (Exception e) {
+        private long hilbertIndex(int side, int x, int y) {
+            long d = 0;
+            for (int s = side / 2; s > 0; s /= 2) {
+                int rx = (x & s) > 0 ? 1 : 0;
+                int ry = (y & s) > 0 ? 1 : 0;
+                d += (long) s * s * ((3 * rx) ^ ry);
+
+                // Rotate the quadrant
+                if (ry == 0) {
+                    if (rx == 1) {
+                        x = s - 1 - x;
+                        y = s - 1 - y;
                     }
+                    int t = x;
+                    x = y;
+                    y = t;
                 }
             }
+            return d;
         }
     }
-    //--------------------------------------- END OF Pixel CLASS ---------------------------------------//
+    //--------------------------------------- END OF Tiles CLASS ---------------------------------------//
 
 
     //----------------------------------------------- RENDER'S METHODS -----------------------------------------------//
@@ -322,6 +614,9 @@ public class Render {
      * @param row pixel's row number (pixel index in column)
      */
     private void castRay(int nX, int nY, int col, int row) {
+        int[] counter = rayCounter.get();
+        counter[0] = 0;
+
         Color color = Color.BLACK;
         // If adaptive grid ware selected so do it, and if not its depend
         // if to cast multiple rays (superSampling) or just ont
@@ -330,21 +625,220 @@ public class Render {
         } else {
             Ray ray;
             if (superSampling) {
-                int numOfRays = 100;
-                for (int i = 1; i < numOfRays; i++) {
-                    ray = _camera.constructRayThroughPixel(nX, nY, col, row);
-                    color = color.add(_rayTracerBase.traceRay(ray));
-                }
-                color = color.reduce(numOfRays);
+                color = superSample(nX, nY, col, row);
             } else {
                 ray = _camera.constructRayThroughPixel(nX, nY, col, row);
-                color = color.add(_rayTracerBase.traceRay(ray));
+                color = color.add(traceRay(ray));
             }
         }
         // Paint the current pixel
         _imageWriter.writePixel(col, row, color);
+        raysPerPixel[row][col] = counter[0];
+    }
+
+    /**
+     * Cast one ray through each pixel of a tile and paint the pixels.
+     * The rays are constructed in the order of the pixels (row by row, as by {@link #castRay(int, int, int, int)}),
+     * and traced in packets of neighbour pixels.
+     *
+     * @param nX   resolution on X axis (number of pixels in row)
+     * @param nY   resolution on Y axis (number of pixels in column)
+     * @param col0 The first column of the tile
+     * @param row0 The first row of the tile
+     * @param col1 The column after the last one of the tile
+     * @param row1 The row after the last one of the tile
+     */
+    private void castRays(int nX, int nY, int col0, int row0, int col1, int row1) {
+        int width = col1 - col0, height = row1 - row0;
+        Ray[] rays = new Ray[width * height];
+        for (int row = row0; row < row1; ++row)
+            for (int col = col0; col < col1; ++col)
+                rays[(row - row0) * width + col - col0] = _camera.constructRayThroughPixel(nX, nY, col, row);
+
+        for (int y = 0; y < height; y += packetSize)
+            for (int x = 0; x < width; x += packetSize) {
+                // The packets on the right and bottom edges of the tile may be smaller
+                int rows = Math.min(packetSize, height - y), cols = Math.min(packetSize, width - x);
+                Ray[] packet = new Ray[rows * cols];
+                for (int i = 0; i < rows; ++i)
+                    System.arraycopy(rays, (y + i) * width + x, packet, i * cols, cols);
+
+                Color[] colors = _rayTracerBase.traceRays(packet);
+                for (int i = 0; i < rows; ++i)
+                    for (int j = 0; j < cols; ++j) {
+                        _imageWriter.writePixel(col0 + x + j, row0 + y + i, colors[i * cols + j]);
+                        raysPerPixel[row0 + y + i][col0 + x + j] = 1;
+                    }
+            }
+    }
+
+    /**
+     * Trace a ray through the pixel and count it in the rays of the current pixel
+     *
+     * @param ray The ray (Ray)
+     * @return The color of the ray (Color)
+     */
+    private Color traceRay(Ray ray) {
+        ++rayCounter.get()[0];
+        return _rayTracerBase.traceRay(ray);
     }
 
+    /**
+     * Trace a packet of rays through the pixel and count them in the rays of the current pixel
+     *
+     * @param rays The rays (Ray[])
+     * @return The colors of the rays (Color[])
+     */
+    private Color[] traceRays(Ray[] rays) {
+        rayCounter.get()[0] += rays.length;
+        return _rayTracerBase.traceRays(rays);
+    }
+
+    /**
+     * Check whether two corner colors of the adaptive grid are in the same variety
+     * (their perceptual difference is within the color tolerance)
+     *
+     * @param color1 The first color
+     * @param color2 The second color
+     * @return True if the colors are in the same variety, false otherwise
+     */
+    private boolean isSimilar(Color color1, Color color2) {
+        return color1.distance(color2) <= colorTolerance;
+    }
+
+
+    /**
+     * Cast rays through the sample points of the pattern and average their colors.
+     * In adaptive sampling (maximal samples count bigger than the samples per pixel), the samples are added
+     * one by one after the first samples per pixel, until the standard error of the average color
+     * (of the noisiest channel) is within the tolerance, or the maximal samples count is reached.
+     * The variance is calculated on the fly (Welford's algorithm).
+     *
+     * @param nX  resolution on X axis (number of pixels in row)
+     * @param nY  resolution on Y axis (number of pixels in column)
+     * @param col pixel's column number (pixel index in row)
+     * @param row pixel's row number (pixel index in column)
+     * @return The average color of the pixel (Color)
+     */
+    private Color superSample(int nX, int nY, int col, int row) {
+        int maxSamples = Math.max(samplesPerPixel, maxSamplesPerPixel);
+        double[] samples = pixelSamples(maxSamples);
+
+        Color color = Color.BLACK;
+        // A fixed number of samples is traced in packets (in the order of the samples)
+        if (maxSamples == samplesPerPixel && packetSize > 1) {
+            int size = packetSize * packetSize;
+            for (int first = 0; first < maxSamples; first += size) {
+                Ray[] packet = new Ray[Math.min(size, maxSamples - first)];
+                for (int i = 0; i < packet.length; ++i)
+                    packet[i] = _camera.constructRayThroughPixel(nX, nY, col, row,
+                            samples[2 * (first + i)], samples[2 * (first + i) + 1]);
+                for (Color sample : traceRays(packet))
+                    color = color.add(sample);
+            }
+            return color.reduce(maxSamples);
+        }
+
+        // The running mean and sum of squared differences of the displayed (r, g, b) values
+        double[] mean = new double[3], m2 = new double[3];
+        int count = 0;
+        while (count < maxSamples) {
+            Ray ray = _camera.constructRayThroughPixel(nX, nY, col, row, samples[2 * count], samples[2 * count + 1]);
+            Color sample = traceRay(ray);
+            color = color.add(sample);
+            ++count;
+
+            if (maxSamples == samplesPerPixel) continue;
+            java.awt.Color rgb = sample.getColor();
+            double error = 0;
+            for (int c = 0; c < 3; ++c) {
+                double value = c == 0 ? rgb.getRed() : c == 1 ? rgb.getGreen() : rgb.getBlue();
+                double delta = value - mean[c];
+                mean[c] += delta / count;
+                m2[c] += delta * (value - mean[c]);
+                // The squared standard error of the mean: variance / count
+                error = Math.max(error, m2[c] / (count - 1.0) / count);
+            }
+            if (count >= samplesPerPixel && error <= varianceTolerance * varianceTolerance) break;
+        }
+        return color.reduce(count);
+    }
+
+    /**
+     * Generate the sample points in a pixel by the sampling pattern.
+     * The random numbers are taken from the camera's sampler.
+     *
+     * @param count The number of the sample points
+     * @return The offsets of the points from the pixel center, in pixel sizes in the range [-0.5, 0.5),
+     * 2 values (x, y) per point (double[])
+     */
+    private double[] pixelSamples(int count) {
+        Sampler sampler = _camera.getSampler();
+        double[] samples = new double[2 * count];
+        switch (samplingPattern) {
+            case STRATIFIED:
+                // Each column and each row of the count x count grid has exactly one point (N-rooks),
+                // the rows are shuffled between the columns
+                for (int i = 0; i < count; i++) {
+                    samples[2 * i] = (i + sampler.nextDouble()) / count - 0.5;
+                    samples[2 * i + 1] = (i + sampler.nextDouble()) / count - 0.5;
+                }
+                shuffle(samples, 1, count, sampler);
+                // If the sampling may stop before all the points are traced, the columns are shuffled too,
+                // so the first points are spread over the whole pixel and not only over its left side
+                if (count > samplesPerPixel) shuffle(samples, 0, count, sampler);
+                break;
+            case HALTON:
+                // The Halton sequence in bases 2 and 3, moved by a random offset of the pixel (modulo 1)
+                // so the neighbour pixels don't have the same pattern
+                double offsetX = sampler.nextDouble(), offsetY = sampler.nextDouble();
+                for (int i = 0; i < count; i++) {
+                    double x = radicalInverse(i + 1, 2) + offsetX;
+                    double y = radicalInverse(i + 1, 3) + offsetY;
+                    samples[2 * i] = (x >= 1 ? x - 1 : x) - 0.5;
+                    samples[2 * i + 1] = (y >= 1 ? y - 1 : y) - 0.5;
+                }
+                break;
+            default:
+                for (int i = 0; i < 2 * count; i++)
+                    samples[i] = sampler.nextDouble() - 0.5;
+        }
+        return samples;
+    }
+
+    /**
+     * Shuffle one coordinate of the sample points between the points (Fisher-Yates)
+     *
+     * @param samples The sample points, 2 values (x, y) per point
+     * @param axis    The coordinate to shuffle (0 - x, 1 - y)
+     * @param count   The number of the sample points
+     * @param sampler The random numbers sampler
+     */
+    private static void shuffle(double[] samples, int axis, int count, Sampler sampler) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = (int) (sampler.nextDouble() * (i + 1));
+            double value = samples[2 * i + axis];
+            samples[2 * i + axis] = samples[2 * j + axis];
+            samples[2 * j + axis] = value;
+        }
+    }
+
+    /**
+     * Calculate the radical inverse of a number (its digits in the base mirrored around the decimal point)
+     *
+     * @param index The number
+     * @param base  The base
+     * @return The radical inverse in the range [0, 1) (double)
+     */
+    private static double radicalInverse(int index, int base) {
+        double result = 0, fraction = 1.0 / base;
+        while (index > 0) {
+            result += (index % base) * fraction;
+            index /= base;
+            fraction /= base;
+        }
+        return result;
+    }
 
     /**
      * Cast rays adaptively to the object and calculate the final color of the pixel
@@ -385,14 +879,14 @@ public class Render {
         List<Ray> ray = _camera.constractRayAdaptivGridDOF(focalPoint, STARTING_DEPTH, STARTING_SIGN, STARTING_SIGN, _camera.getP0());
         for (int i = 0; i < ray.size(); i++) {
             // We save the colors for comparing them for knowing if we need to make deeper grid
-            colors.add(_rayTracerBase.traceRay(ray.get(i)));
+            colors.add(traceRay(ray.get(i)));
             color = color.add(colors.get(i));
         }
 
         // If not all four corners are with the same variety, make deeper grid
-        if (!colors.get(0).isEqual(colors.get(1)) ||
-                !colors.get(1).isEqual(colors.get(2)) ||
-                !colors.get(2).isEqual(colors.get(3))) {
+        if (!isSimilar(colors.get(0), colors.get(1)) ||
+                !isSimilar(colors.get(1), colors.get(2)) ||
+                !isSimilar(colors.get(2), colors.get(3))) {
 
             color = Color.BLACK;
             List<Color> colRay1 = adaptiveGridDOF2(focalPoint, STARTING_DEPTH + 1, 1, 1, List.of(colors.get(0))
@@ -451,7 +945,7 @@ public class Render {
             color = color.add(oldColors.get(0));
 
             for (int i = 0; i < 3; i++) {
-                colRayList.add(_rayTracerBase.traceRay(rays.get(i)));
+                colRayList.add(traceRay(rays.get(i)));
                 color = color.add(colRayList.get(i + 1));
             }
         }
@@ -464,7 +958,7 @@ public class Render {
             colRayList.add(oldColors.get(1)); // up-left corner
             color = color.add(oldColors.get(1));
 
-            colRayList.add(_rayTracerBase.traceRay(rays.get(0))); // down-left corner
+            colRayList.add(traceRay(rays.get(0))); // down-left corner
             color = color.add(colRayList.get(2));
 
             colRayList.add(oldColors.get(2)); // down-right corner
@@ -483,7 +977,7 @@ public class Render {
             colRayList.add(oldColors.get(2)); // down-left corner
             color = color.add(oldColors.get(2));
 
-            colRayList.add(_rayTracerBase.traceRay(rays.get(0))); // down-right corner
+            colRayList.add(traceRay(rays.get(0))); // down-right corner
             color = color.add(colRayList.get(3));
         }
 
@@ -498,15 +992,15 @@ public class Render {
         }
 
         // Stop recursive condition
-        if (depth >= MAX_DEPTH_OF_ADAPTIVE) {
+        if (depth >= maxAdaptiveDepth) {
             colRayList.add(color.reduce(4));
             return colRayList;
         }
 
         // Check if all corners in the same variety
-        if (!colRayList.get(0).isEqual(colRayList.get(1)) ||
-                !colRayList.get(1).isEqual(colRayList.get(2)) ||
-                !colRayList.get(2).isEqual(colRayList.get(3))) {
+        if (!isSimilar(colRayList.get(0), colRayList.get(1)) ||
+                !isSimilar(colRayList.get(1), colRayList.get(2)) ||
+                !isSimilar(colRayList.get(2), colRayList.get(3))) {
 
             List<Point3D> centers = _camera.centerOfPixelsDOF( centerOfPixel , depth);
 
@@ -537,7 +1031,10 @@ public class Render {
 
 
     /**
-     * Cast rays adaptively to the object and calculate the final color of the pixel
+     * Cast rays adaptively to the object and calculate the final color of the pixel.
+     * The corners of the pixel and of its sub-pixels are points of a lattice over the view plane,
+     * {@link #latticeSize} cells per pixel side. The color of each lattice point is kept in the
+     * corner cache of the thread, so a corner shared by neighbour pixels (or sub-pixels) is traced once.
      *
      * @param nX  number of columns (int)
      * @param nY  number of rows (int)
@@ -549,206 +1046,90 @@ public class Render {
 
         if(_camera.DOF) return adaptiveGridDOF( nX, nY, col, row);
 
-        Color color = Color.BLACK;
-        List<Color> colors = new ArrayList<>();
-
-        //-----------------------
-        // calculate the center of the main pixel
-        Point3D center = _camera.centerOfMainPixel(nX, nY, col, row);
-
-        // calculate the sub-pixels centers
-        List<Point3D> centers = _camera.centerOfPixels(nX, nY, center , STARTING_DEPTH);
-        //-----------------------
-
-
-        // Collect all the four colors of the four pixel's corners
-        // and add it to 'color' for calculating the average color of the pixel (the final color of the pixel)
-        // ---
-        // The order of the ray list is:
-        // up-right corner   -  1  -- index 0
-        // up-left corner    -  2  -- index 1
-        // down-left corner  -  3  -- index 2
-        // down-right corner -  4  -- index 3
-        // --
-        // The order of the colors of the corners are in the same order of the ray list
-        List<Ray> ray = _camera.constructRayThroughPixelAdaptive(nX, nY, STARTING_DEPTH, STARTING_SIGN, STARTING_SIGN, center);
-        for (int i = 0; i < ray.size(); i++) {
-            // We save the colors for comparing them for knowing if we need to make deeper grid
-            colors.add(_rayTracerBase.traceRay(ray.get(i)));
-            color = color.add(colors.get(i));
-        }
-
-        // If not all four corners are with the same variety, make deeper grid
-        if (!colors.get(0).isEqual(colors.get(1)) ||
-                !colors.get(1).isEqual(colors.get(2)) ||
-                !colors.get(2).isEqual(colors.get(3))) {
-
-            color = Color.BLACK;
-            List<Color> colRay1 = adaptiveGrid2(nX, nY, STARTING_DEPTH + 1, 1, 1, List.of(colors.get(0))
-            ,centers.get(0)); // Right up
-            color = color.add(colRay1.get(4));
-
-            List<Color> colRay2 = adaptiveGrid2(nX, nY, STARTING_DEPTH + 1, -1, 1
-                    , List.of(colRay1.get(1), colors.get(1), colRay1.get(2)),centers.get(1)); // Left up
-            color = color.add(colRay2.get(4));
-
-
-            List<Color> colRay3 = adaptiveGrid2(nX, nY, STARTING_DEPTH + 1, -1, -1,
-                    List.of(colRay1.get(2), colRay2.get(2), colors.get(2)),centers.get(2)); // left down
-            color = color.add(colRay3.get(4));
-
-
-            List<Color> colRay4 = adaptiveGrid2(nX, nY, STARTING_DEPTH + 1, 1, -1,
-                    List.of(colRay1.get(3), colRay1.get(2), colRay3.get(3), colors.get(3)),centers.get(3)); // right down
-            color = color.add(colRay4.get(4));
-
-        }
-        return color.reduce(4);
+        return adaptiveGrid(nX, nY, col, row, col * latticeSize, row * latticeSize, latticeSize, STARTING_DEPTH,
+                cornerCache.get());
     }
 
-
-
     /**
-     * @param nX        number of columns (int)
-     * @param nY        number of rows (int)
-     * @param depth     The depth of the recursion
-     * @param signX     The X sign of the current quarter
-     * @param signY     The Y sign of the current quarter
-     * @param oldColors List of colors we already calculate
-     * @return List of the corners colors and the average of them
+     * Calculate the average color of a square of the pixel, by its four corners.
+     * If not all four corners are with the same variety, the square is divided to four squares (deeper grid)
+     * until the maximal depth.
+     *
+     * @param nX    number of columns (int)
+     * @param nY    number of rows (int)
+     * @param col   column index of the pixel in the view plane (int)
+     * @param row   row index of the pixel in the view plane (int)
+     * @param x     The lattice column of the up-left corner of the square
+     * @param y     The lattice row of the up-left corner of the square
+     * @param size  The size of the square side (in lattice cells)
+     * @param depth The depth of the recursion
+     * @param cache The corner cache of the thread
+     * @return The average color of the square (Color)
      */
-    private List<Color> adaptiveGrid2(int nX, int nY, int depth, int signX, int signY, List<Color> oldColors, Point3D centerOfPixel) {
-
-        // To calculate the final average color
-        Color color = Color.BLACK;
-
-        // List to save the final colors
-        List<Color> colRayList = new ArrayList<>();
-
-        // REORGANIZED
-        // We organize the list of the rays and they colors (colRayList) refer to:
-        // up-right corner   -  1  -- index 0
-        // up-left corner    -  2  -- index 1
-        // down-left corner  -  3  -- index 2
-        // down-right corner -  4  -- index 3
-        // the average color -     -- index 4
-        List<Ray> rays = _camera.constructRayThroughPixelAdaptive(nX, nY, depth, signX, signY, centerOfPixel); // The new corners
-
-        // First quarter
-        if (signX > 0 && signY > 0) {
-            colRayList.add(oldColors.get(0)); // up-right corner
-            color = color.add(oldColors.get(0));
-
-            for (int i = 0; i < 3; i++) {
-                colRayList.add(_rayTracerBase.traceRay(rays.get(i)));
-                color = color.add(colRayList.get(i + 1));
-            }
-        }
-
-        // Second quarter
-        if (signX < 0 && signY > 0) {
-            colRayList.add(oldColors.get(0)); // up-right corner
-            color = color.add(oldColors.get(0));
-
-            colRayList.add(oldColors.get(1)); // up-left corner
-            color = color.add(oldColors.get(1));
-
-            colRayList.add(_rayTracerBase.traceRay(rays.get(0))); // down-left corner
-            color = color.add(colRayList.get(2));
-
-            colRayList.add(oldColors.get(2)); // down-right corner
-            color = color.add(oldColors.get(2));
-        }
-
-        // Third quarter
-        if (signX < 0 && signY < 0) {
-
-            colRayList.add(oldColors.get(0)); // up-right corner
-            color = color.add(oldColors.get(0));
-
-            colRayList.add(oldColors.get(1)); // up-left corner
-            color = color.add(oldColors.get(1));
-
-            colRayList.add(oldColors.get(2)); // down-left corner
-            color = color.add(oldColors.get(2));
-
-            colRayList.add(_rayTracerBase.traceRay(rays.get(0))); // down-right corner
-            color = color.add(colRayList.get(3));
-        }
-
-        // Fourth quarter
-        if (signX > 0 && signY < 0) {
-            //We receive all the corners colors as parameters (in 'oldRays')
-            // so we just add them to 'colRayList'.
-            for (int i = 0; i < 4; i++) {
-                colRayList.add(oldColors.get(i)); // We receive them sorted so we just save them
-                color = color.add(oldColors.get(i));
-            }
-        }
-
-        // Stop recursive condition
-        if (depth >= MAX_DEPTH_OF_ADAPTIVE) {
-            colRayList.add(color.reduce(4));
-            return colRayList;
-        }
-
-        // Check if all corners in the same variety
-        if (!colRayList.get(0).isEqual(colRayList.get(1)) ||
-                !colRayList.get(1).isEqual(colRayList.get(2)) ||
-                !colRayList.get(2).isEqual(colRayList.get(3))) {
-
-            List<Point3D> centers = _camera.centerOfPixels(nX, nY, centerOfPixel , depth);
-
-            color = Color.BLACK;
-            List<Color> colRay1 = adaptiveGrid2(nX, nY, depth + 1, 1, 1, List.of(colRayList.get(0))
-            ,centers.get(0)); // Right up
-            color = color.add(colRay1.get(4));
-
-            List<Color> colRay2 = adaptiveGrid2(nX, nY, depth + 1, -1, 1
-                    , List.of(colRay1.get(1), colRayList.get(1), colRay1.get(2)),centers.get(1)); // Left up
-            color = color.add(colRay2.get(4));
-
-            List<Color> colRay3 = adaptiveGrid2(nX, nY, depth + 1, -1, -1,
-                    List.of(colRay1.get(2), colRay2.get(2), colRayList.get(2)),centers.get(2)); // Left down
-            color = color.add(colRay3.get(4));
-
+    private Color adaptiveGrid(int nX, int nY, int col, int row, int x, int y, int size, int depth, Map<Long, Color> cache) {
+        // The colors of the corners
+        Color upRight = corner(nX, nY, col, row, x + size, y, cache);
+        Color upLeft = corner(nX, nY, col, row, x, y, cache);
+        Color downLeft = corner(nX, nY, col, row, x, y + size, cache);
+        Color downRight = corner(nX, nY, col, row, x + size, y + size, cache);
+
+        // If all four corners are with the same variety (or it's the maximal depth), return their average
+        if (depth >= maxAdaptiveDepth ||
+                (isSimilar(upRight, upLeft) && isSimilar(upLeft, downLeft) && isSimilar(downLeft, downRight)))
+            return upRight.add(upLeft, downLeft, downRight).reduce(4);
+
+        // Else make deeper grid - average the colors of the four quarters
+        int half = size / 2;
+        return adaptiveGrid(nX, nY, col, row, x + half, y, half, depth + 1, cache) // Right up
+                .add(adaptiveGrid(nX, nY, col, row, x, y, half, depth + 1, cache), // Left up
+                        adaptiveGrid(nX, nY, col, row, x, y + half, half, depth + 1, cache), // Left down
+                        adaptiveGrid(nX, nY, col, row, x + half, y + half, half, depth + 1, cache)) // Right down
+                .reduce(4);
+    }
 
-            List<Color> colRay4 = adaptiveGrid2(nX, nY, depth + 1, 1, -1,
-                    List.of(colRay1.get(3), colRay1.get(2), colRay3.get(3), colRayList.get(3)),centers.get(3)); // Right down
-            color = color.add(colRay4.get(4));
+    /**
+     * Return the color of a lattice point, trace a ray through it only if it's not in the cache
+     * (or if the cache is off, see {@link #setCacheCorners(boolean)})
+     *
+     * @param nX    number of columns (int)
+     * @param nY    number of rows (int)
+     * @param col   column index of the pixel in the view plane (int)
+     * @param row   row index of the pixel in the view plane (int)
+     * @param x     The lattice column of the point
+     * @param y     The lattice row of the point
+     * @param cache The corner cache of the thread
+     * @return The color of the point (Color)
+     */
+    private Color corner(int nX, int nY, int col, int row, int x, int y, Map<Long, Color> cache) {
+        long key = ((long) x << 32) | (y & 0xFFFFFFFFL);
+        Color color = cacheCorners ? cache.get(key) : null;
+        if (color == null) {
+            // The offset of the point from the pixel center (the rows go down, the offset goes up)
+            double dX = (double) x / latticeSize - col - 0.5;
+            double dY = row + 0.5 - (double) y / latticeSize;
+            color = traceRay(_camera.constructRayThroughPixel(nX, nY, col, row, dX, dY));
+            if (cacheCorners) cache.put(key, color);
         }
-
-        // Returns a list with four current corners
-        // colors, and the average of the colors
-        colRayList.add(color.reduce(4));
-        return colRayList;
+        return color;
     }
 
-
     /**
      * This function renders image's pixel color map from the scene included with
-     * the Renderer object - with multi-threading
+     * the Renderer object - with multi-threading (each thread takes the next tile)
      */
     private void renderImageThreaded() {
         final int nX = _imageWriter.getNx();
         final int nY = _imageWriter.getNy();
-        final Pixel thePixel = new Pixel(nY, nX);
+        final Tiles tiles = new Tiles(nX, nY);
         // Generate threads
         Thread[] threads = new Thread[threadsCount];
         for (int i = threadsCount - 1; i >= 0; --i) {
-            threads[i] = new Thread(() -> {
-                Pixel pixel = new Pixel();
-                while (thePixel.nextPixel(pixel))
-                    castRay(nX, nY, pixel.col, pixel.row);
-            });
+            threads[i] = new Thread(() -> tiles.render(nX, nY));
         }
         // Start threads
         for (Thread thread : threads)
             thread.start();
 
-        // Print percents on the console
-        thePixel.print();
-
         // Ensure all threads have finished
         for (Thread thread : threads)
             try {
@@ -781,20 +1162,50 @@ public class Render {
                 throw new MissingResourceException("Missing rayTracerBase", "RayTracerBase", "Scene scene");
             }
 
+            // The random numbers of the ray tracer follow the sequences of the tiles too
+            _rayTracerBase.setCameraSampler(_camera.getSampler());
+            _rayTracerBase.startRender();
+
             final int nX = _imageWriter.getNx();
             final int nY = _imageWriter.getNy();
+            raysPerPixel = new int[nY][nX];
+            // Without threads the tiles are rendered in the current thread (so the random numbers are the same)
             if (threadsCount == 0)
-                for (int i = 0; i < nY; ++i)
-                    for (int j = 0; j < nX; ++j)
-                        castRay(nX, nY, j, i);
+                new Tiles(nX, nY).render(nX, nY);
             else
                 renderImageThreaded();
+
+            if (print)
+                System.out.printf("%n rays per pixel: %.2f%n", (double) getRaysCount() / ((long) nX * nY));
         } catch (MissingResourceException e) {
             // If one of the objects are null then throw UnsupportedOperationException to the user
             throw new UnsupportedOperationException("No implement yet:" + e.getClassName());
         }
     }
 
+    /**
+     * Return the number of rays cast through each pixel in the last render
+     *
+     * @return The numbers of rays by [row][column], null if nothing was rendered yet (int[][])
+     */
+    public int[][] getRaysPerPixel() {
+        return raysPerPixel;
+    }
+
+    /**
+     * Return the total number of rays cast through the pixels in the last render
+     *
+     * @return The number of rays (long)
+     */
+    public long getRaysCount() {
+        long count = 0;
+        if (raysPerPixel != null)
+            for (int[] row : raysPerPixel)
+                for (int rays : row)
+                    count += rays;
+        return count;
+    }
+
     /**
      * Print a grid on the image
      *
@@ -58,13 +58,14 @@ public class Scene {
     //--------------------------------------------------- C-TOR ---------------------------------------------------//
 
     /**
-     * c-tor, initialize the name of the scene and the geometries list of the scene
+     * c-tor, initialize the name of the scene and the geometries list of the scene.
+     * The geometries are searched through a bounding volume hierarchy, built on the first render.
      *
      * @param name The name of the scene (String)
      */
     public Scene(String name) {
         _name = name;
-        _geometries = new Geometries();
+        _geometries = new Geometries().setBVH(true);
     }
 
     /**
@@ -0,0 +1,103 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing BoundingBox Class
+ *
+ * @author Aviel buta and Yakir Yohanan
+ */
+class BoundingBoxTests {
+
+    /**
+     * Test method for {@link geometries.BoundingBox#intersects(Ray, double)}.
+     */
+    @Test
+    void intersects() {
+        BoundingBox box = new BoundingBox(0, 0, 0, 1, 1, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the box
+        assertTrue(box.intersects(new Ray(new Point3D(-1, 0.5, 0.5), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "Ray crosses the box");
+
+        // TC02: Ray's line goes next to the box
+        assertFalse(box.intersects(new Ray(new Point3D(-1, 2, 0.5), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "Ray's line goes next to the box");
+
+        // TC03: Ray starts after the box
+        assertFalse(box.intersects(new Ray(new Point3D(2, 0.5, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray starts after the box");
+
+        // TC04: Ray starts inside the box
+        assertTrue(box.intersects(new Ray(new Point3D(0.5, 0.5, 0.5), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY),
+                "Ray starts inside the box");
+
+        // TC05: The box is farther than the maximal distance
+        assertFalse(box.intersects(new Ray(new Point3D(-3, 0.5, 0.5), new Vector(1, 0, 0)), 2),
+                "The box is farther than the maximal distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray is parallel to the axes and lays on the box face
+        assertTrue(box.intersects(new Ray(new Point3D(-1, 0, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray lays on the box face");
+
+        // TC11: Ray is parallel to the axes and goes next to the box face
+        assertFalse(box.intersects(new Ray(new Point3D(-1, -0.1, 0.5), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray goes next to the box face");
+
+        // TC12: Flat box (of an axis aligned triangle)
+        assertTrue(new BoundingBox(0, 0, 0, 1, 1, 0).intersects(new Ray(new Point3D(0.5, 0.5, 1), new Vector(0, 0, -1)),
+                Double.POSITIVE_INFINITY), "Ray crosses the flat box");
+
+        // TC13: Infinite and empty boxes
+        Ray ray = new Ray(new Point3D(5, 5, 5), new Vector(1, 0, 0));
+        assertTrue(BoundingBox.INFINITE.intersects(ray, Double.POSITIVE_INFINITY), "Any ray crosses the infinite box");
+        assertFalse(BoundingBox.EMPTY.intersects(ray, Double.POSITIVE_INFINITY), "No ray crosses the empty box");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()} of the geometries.
+     */
+    @Test
+    void getBoundingBox() {
+        Sphere sphere = new Sphere(new Point3D(1, 2, 3), 1);
+        Triangle triangle = new Triangle(new Point3D(0, 0, 0), new Point3D(2, 0, 0), new Point3D(0, 3, -1));
+        Cylinder cylinder = new Cylinder(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), 1, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere
+        assertEquals(new Point3D(0, 1, 2), sphere.getBoundingBox().getMin(), "Bad sphere box");
+        assertEquals(new Point3D(2, 3, 4), sphere.getBoundingBox().getMax(), "Bad sphere box");
+
+        // TC02: Triangle
+        assertEquals(new Point3D(0, 0, -1), triangle.getBoundingBox().getMin(), "Bad triangle box");
+        assertEquals(new Point3D(2, 3, 0), triangle.getBoundingBox().getMax(), "Bad triangle box");
+
+        // TC03: Cylinder
+        assertEquals(new Point3D(-1, -1, 0), cylinder.getBoundingBox().getMin(), "Bad cylinder box");
+        assertEquals(new Point3D(1, 1, 10), cylinder.getBoundingBox().getMax(), "Bad cylinder box");
+
+        // TC04: Geometries
+        BoundingBox box = new Geometries(sphere, triangle, cylinder).getBoundingBox();
+        assertEquals(new Point3D(-1, -1, -1), box.getMin(), "Bad geometries box");
+        assertEquals(new Point3D(2, 3, 10), box.getMax(), "Bad geometries box");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Unbounded geometries
+        assertTrue(new Plane(new Point3D(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox().isInfinite(),
+                "Plane is not bounded");
+        assertTrue(new Tube(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), 1).getBoundingBox().isInfinite(),
+                "Tube is not bounded");
+        assertTrue(new Geometries(sphere, new Plane(new Point3D(0, 0, 0), new Vector(0, 0, 1)))
+                .getBoundingBox().isInfinite(), "Geometries with a plane is not bounded");
+
+        // TC11: Empty geometries
+        assertTrue(new Geometries().getBoundingBox().isEmpty(), "Empty geometries box");
+    }
+}
@@ -1,10 +1,13 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -23,11 +26,11 @@ class CylinderTests {
 
         // ============ Equivalence Partitions Tests ==============
         // TC01: check the first base
-        assertEquals(new Point3D(0,1,0) ,cy.getNormal(new Point3D(0,0.5,0)).getHead(),
+        assertEquals(new Point3D(0,0,1) ,cy.getNormal(new Point3D(0,0.5,0)).getHead(),
                 "Bad normal to first base of cylinder");
 
         // TC02: check the second base
-        assertEquals(new Point3D(0,1,0) ,cy.getNormal(new Point3D(0,0.5,10)).getHead(),
+        assertEquals(new Point3D(0,0,1) ,cy.getNormal(new Point3D(0,0.5,10)).getHead(),
                 "Bad normal to second base of cylinder");
 
         // TC03: check the side of the cylinder
@@ -43,4 +46,85 @@ class CylinderTests {
         assertEquals(cy._axisRay.getDir(), cy.getNormal(new Point3D(0,0,10)),
                 "Bad normal to second base center of the cylinder");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Cylinder#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void findIntersections() {
+        Cylinder cy = new Cylinder(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), 1, 10);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray misses the cylinder (0 points)
+        assertNull(cy.findIntersections(new Ray(new Point3D(2, 0, 5), new Vector(0, 1, 0))),
+                "Ray misses the cylinder");
+
+        // TC02: Ray crosses the side twice (2 points)
+        assertEquals(List.of(new Point3D(-1, 0, 5), new Point3D(1, 0, 5)),
+                cy.findIntersections(new Ray(new Point3D(-3, 0, 5), new Vector(1, 0, 0))),
+                "Ray crosses the side");
+
+        // TC03: Ray crosses the first base and the side (2 points)
+        assertEquals(List.of(new Point3D(0, 0, 0), new Point3D(1, 0, 1)),
+                cy.findIntersections(new Ray(new Point3D(-1, 0, -1), new Vector(1, 0, 1))),
+                "Ray crosses the first base and the side");
+
+        // TC04: Ray crosses both bases (2 points)
+        assertEquals(List.of(new Point3D(0.5, 0, 10), new Point3D(0.5, 0, 0)),
+                cy.findIntersections(new Ray(new Point3D(0.5, 0, 12), new Vector(0, 0, -1))),
+                "Ray crosses both bases");
+
+        // TC05: Ray's line crosses the tube beyond the bases (0 points)
+        assertNull(cy.findIntersections(new Ray(new Point3D(-3, 0, 12), new Vector(1, 0, 0))),
+                "Ray crosses the tube above the cylinder");
+
+        // TC06: Ray starts inside the cylinder (1 point)
+        assertEquals(List.of(new Point3D(0, 1, 5)),
+                cy.findIntersections(new Ray(new Point3D(0, 0, 5), new Vector(0, 1, 0))),
+                "Ray starts inside the cylinder");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray starts at the second base and goes outside (0 points)
+        assertNull(cy.findIntersections(new Ray(new Point3D(0.5, 0, 10), new Vector(0, 0, 1))),
+                "Ray starts at the base and goes outside");
+
+        // TC11: Ray starts at the second base and goes inside (1 point)
+        assertEquals(List.of(new Point3D(0.5, 0, 0)),
+                cy.findIntersections(new Ray(new Point3D(0.5, 0, 10), new Vector(0, 0, -1))),
+                "Ray starts at the base and goes inside");
+
+        // TC12: Ray is in the plane of the first base (0 points)
+        assertNull(cy.findIntersections(new Ray(new Point3D(-3, 0, 0), new Vector(1, 0, 0))),
+                "Ray in the plane of the base");
+
+        // TC13: Ray is parallel to the axis outside the cylinder (0 points)
+        assertNull(cy.findIntersections(new Ray(new Point3D(2, 0, -1), new Vector(0, 0, 1))),
+                "Ray parallel to the axis outside the cylinder");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#findClosestGeoIntersection(primitives.Ray, double)}
+     * and {@link geometries.Cylinder#findTransparency(primitives.Ray, double, double, double)}.
+     */
+    @Test
+    void findClosestAndAnyHit() {
+        Cylinder cy = new Cylinder(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), 1, 10);
+        cy.setMaterial(new Material().setKt(0.5));
+        Ray ray = new Ray(new Point3D(-3, 0, 5), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection is the nearer side
+        assertEquals(new Point3D(-1, 0, 5), cy.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY)._point,
+                "Bad closest intersection");
+
+        // TC02: No intersection before the distance
+        assertNull(cy.findClosestGeoIntersection(ray, 1), "Intersection beyond the distance");
+
+        // TC03: Both sides attenuate the light
+        assertEquals(0.25, cy.findTransparency(ray, 10, 1, 0.01), 1e-10, "Bad transparency of two sides");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The distance ends between the sides - only the nearer side attenuates the light
+        assertEquals(0.5, cy.findTransparency(ray, 3, 1, 0.01), 1e-10, "Bad transparency of one side");
+    }
+}
@@ -1,12 +1,17 @@
 package geometries;
 
+import geometries.Intersectable.GeoPoint;
 import org.junit.jupiter.api.Test;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Testing Geometries Class
@@ -56,4 +61,243 @@ class GeometriesTests {
 
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test for {@link geometries.Geometries#findIntersections(Ray)} through the bounding volume hierarchy
+     */
+    @Test
+    void findIntersectionsBVH() {
+        Plane plane = new Plane(new Point3D(1, 0, 0), new Point3D(2, 0, 0), new Point3D(1.5, 0, 1));
+        Sphere sphere = new Sphere(new Point3D(1, 0, 1), 1);
+        Triangle triangle = new Triangle(new Point3D(0, 2, 0), new Point3D(2, 2, 0), new Point3D(1.5, 2, 2));
+        Geometries geometries = new Geometries(plane, sphere, triangle).setBVH(true);
+
+        // Many small spheres in a row, far from the rays of the first cases
+        Geometries row = new Geometries().setBVH(true);
+        for (int i = 0; i < 100; i++)
+            row.add(new Sphere(new Point3D(10 + 3 * i, 10, 10), 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: More then one object intersect (but not all the objects)
+        assertEquals(3, geometries.findIntersections(new Ray(new Point3D(1, 1.5, 1), new Vector(0, -1, 0))).size(),
+                "More then one object intersect (but not all the objects)");
+
+        //TC02: The ray crosses one sphere of the row
+        assertEquals(2, row.findIntersections(new Ray(new Point3D(40, 0, 10), new Vector(0, 1, 0))).size(),
+                "Suppose to be 2 intersection points (one sphere of the row)");
+
+        //TC03: The ray goes along the row and crosses all the spheres
+        assertEquals(200, row.findIntersections(new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0))).size(),
+                "Suppose to be 200 intersection points (all the spheres of the row)");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: Empty list
+        assertNull(new Geometries().setBVH(true).findIntersections(new Ray(new Point3D(1, 1, 1), new Vector(0, -1, 0))),
+                "The List empty");
+
+        // TC11: No intersection with the objects
+        assertNull(geometries.findIntersections(new Ray(new Point3D(1, -1, 1), new Vector(0, -1, 0))),
+                "The ray suppose not intersect the objects");
+
+        //TC12: The ray passes between the spheres of the row
+        assertNull(row.findIntersections(new Ray(new Point3D(41.5, 0, 10), new Vector(0, 1, 0))),
+                "The ray suppose to pass between the spheres");
+
+        //TC13: Sub-collection inside a list searched one by one
+        Geometries parent = new Geometries(plane, row);
+        assertEquals(1, parent.findIntersections(new Ray(new Point3D(41.5, 1, 10), new Vector(0, -1, 0))).size(),
+                "The sub-collection is not crossed, only the plane");
+        assertEquals(2, parent.findIntersections(new Ray(new Point3D(40, 1, 10), new Vector(0, 1, 0))).size(),
+                "One sphere of the sub-collection is crossed");
+
+        //TC14: A geometry is added after the hierarchy was built
+        row.add(new Sphere(new Point3D(41.5, 20, 10), 1));
+        assertEquals(2, row.findIntersections(new Ray(new Point3D(41.5, 0, 10), new Vector(0, 1, 0))).size(),
+                "The added geometry must be found");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void findClosestGeoIntersection() {
+        Geometries row = new Geometries().setBVH(true);
+        for (int i = 0; i < 100; i++)
+            row.add(new Sphere(new Point3D(10 + 3 * i, 10, 10), 1));
+        Plane plane = new Plane(new Point3D(0, 0, 0), new Vector(1, 0, 0));
+        Geometries linear = new Geometries(plane, row);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The ray goes along the row, the closest point is on the first sphere
+        assertEquals(new Point3D(9, 10, 10),
+                row.findClosestGeoIntersection(new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0)),
+                        Double.POSITIVE_INFINITY)._point, "Bad closest point along the row");
+
+        //TC02: The ray goes along the row backward, the closest point is on the last sphere
+        assertEquals(new Point3D(308, 10, 10),
+                row.findClosestGeoIntersection(new Ray(new Point3D(400, 10, 10), new Vector(-1, 0, 0)),
+                        Double.POSITIVE_INFINITY)._point, "Bad closest point along the row backward");
+
+        //TC03: Linear list, the plane is closer than the sub-collection
+        assertEquals(new Point3D(0, 10, 10),
+                linear.findClosestGeoIntersection(new Ray(new Point3D(-5, 10, 10), new Vector(1, 0, 0)),
+                        Double.POSITIVE_INFINITY)._point, "The plane is the closest");
+
+        //TC04: Triangles and spheres in the same leaves, the closest point is on a triangle
+        Geometries mixed = new Geometries().setBVH(true);
+        Triangle closest = new Triangle(new Point3D(5, 9, 9), new Point3D(5, 12, 9), new Point3D(5, 9, 12));
+        mixed.add(new Sphere(new Point3D(10, 10, 10), 1), closest,
+                new Triangle(new Point3D(7, 9, 9), new Point3D(7, 12, 9), new Point3D(7, 9, 12)),
+                new Sphere(new Point3D(3, 10, 20), 1));
+        GeoPoint gp = mixed.findClosestGeoIntersection(new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY);
+        assertEquals(new Point3D(5, 10, 10), gp._point, "Bad closest point on the triangles");
+        assertSame(closest, gp._geometry, "Bad closest geometry");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: Empty list
+        assertNull(new Geometries().setBVH(true).findClosestGeoIntersection(
+                new Ray(new Point3D(1, 1, 1), new Vector(0, -1, 0)), Double.POSITIVE_INFINITY), "The List empty");
+
+        //TC11: All the intersections are farther than the maximal distance
+        assertNull(row.findClosestGeoIntersection(new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0)), 9),
+                "The first sphere is farther than the maximal distance");
+
+        //TC12: The ray starts inside a sphere of the row
+        assertEquals(new Point3D(11, 10, 10),
+                row.findClosestGeoIntersection(new Ray(new Point3D(10, 10, 10), new Vector(1, 0, 0)),
+                        Double.POSITIVE_INFINITY)._point, "Bad closest point from inside a sphere");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestGeoIntersections(Ray[], double[], GeoPoint[])}.
+     */
+    @Test
+    void findClosestGeoIntersections() {
+        Geometries row = new Geometries().setBVH(true);
+        for (int i = 0; i < 100; i++)
+            row.add(new Sphere(new Point3D(10 + 3 * i, 10, 10), 1),
+                    new Triangle(new Point3D(11 + 3 * i, 0, 0), new Point3D(11 + 3 * i, 20, 0), new Point3D(11 + 3 * i, 0, 20)));
+        Geometries geometries = new Geometries(new Plane(new Point3D(0, 0, -5), new Vector(0, 0, 1)), row).setBVH(true);
+        Ray[] rays = {
+                new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0)), // the first sphere
+                new Ray(new Point3D(0, 10, 10.5), new Vector(1, 0.001, 0)), // the first sphere, close to the first ray
+                new Ray(new Point3D(12, 1, 1), new Vector(1, 0, 0)), // the second triangle
+                null,
+                new Ray(new Point3D(0, 30, 10), new Vector(1, 0, 0)) // nothing
+        };
+        double[] maxDistances = new double[rays.length];
+        Arrays.fill(maxDistances, Double.POSITIVE_INFINITY);
+        GeoPoint[] closest = new GeoPoint[rays.length];
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The packet gets the same points as each ray alone
+        geometries.findClosestGeoIntersections(rays, maxDistances, closest);
+        for (int i = 0; i < rays.length; ++i) {
+            GeoPoint expected = rays[i] == null ? null
+                    : geometries.findClosestGeoIntersection(rays[i], Double.POSITIVE_INFINITY);
+            if (expected == null)
+                assertNull(closest[i], "Bad closest point of ray " + i);
+            else {
+                assertEquals(expected._point, closest[i]._point, "Bad closest point of ray " + i);
+                assertSame(expected._geometry, closest[i]._geometry, "Bad closest geometry of ray " + i);
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        //TC10: The previous closest points are closer than all the geometries
+        Arrays.fill(maxDistances, 1);
+        GeoPoint[] none = new GeoPoint[rays.length];
+        geometries.findClosestGeoIntersections(rays, maxDistances, none);
+        for (GeoPoint gp : none)
+            assertNull(gp, "All the geometries are farther than the maximal distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(Ray, double, double, double)}.
+     */
+    @Test
+    void findTransparency() {
+        // A row of half transparent spheres
+        Geometries row = new Geometries().setBVH(true);
+        for (int i = 0; i < 10; i++)
+            row.add(new Sphere(new Point3D(10 + 3 * i, 10, 10), 1).setMaterial(new Material().setKt(0.5)));
+        Ray ray = new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The ray crosses the first two spheres before the distance (4 intersections)
+        assertEquals(0.0625, row.findTransparency(ray, 14, 1, 0.001), 0.00001, "Bad transparency of two spheres");
+
+        //TC02: The ray is blocked (the transparency drops below the minimum)
+        assertEquals(0, row.findTransparency(ray, Double.POSITIVE_INFINITY, 1, 0.001), "The ray must be blocked");
+
+        //TC03: The ray doesn't cross any sphere
+        assertEquals(1, row.findTransparency(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, 1, 0.001), "Nothing blocks the ray");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: All the intersections are farther than the distance
+        assertEquals(1, row.findTransparency(ray, 8, 1, 0.001), "The spheres are behind the distance");
+
+        //TC11: The distance is exactly on the first intersection
+        assertEquals(0.5, row.findTransparency(ray, 9, 1, 0.001), 0.00001, "Bad transparency at the distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(Ray, double, double, double, Intersectable[])}.
+     */
+    @Test
+    void findTransparencyOccluder() {
+        // Half transparent spheres and an opaque sphere inside a sub-collection
+        Sphere opaque = new Sphere(new Point3D(25, 10, 10), 1);
+        Geometries row = new Geometries().setBVH(true);
+        for (int i = 0; i < 3; i++)
+            row.add(new Sphere(new Point3D(10 + 3 * i, 10, 10), 1).setMaterial(new Material().setKt(0.5)));
+        row.add(new Geometries(opaque));
+        Ray ray = new Ray(new Point3D(0, 10, 10), new Vector(1, 0, 0));
+        Intersectable[] occluder = new Intersectable[1];
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The ray is not blocked, no occluder is reported
+        assertEquals(0.015625, row.findTransparency(ray, 20, 1, 0.001, occluder), 0.00001,
+                "Bad transparency of three spheres");
+        assertNull(occluder[0], "The ray is not blocked");
+
+        //TC02: The ray is blocked by the opaque sphere of the sub-collection
+        assertEquals(0, row.findTransparency(ray, Double.POSITIVE_INFINITY, 1, 0.001, occluder), "The ray must be blocked");
+        assertSame(opaque, occluder[0], "The occluder must be the opaque sphere");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: The occluder alone blocks the ray
+        assertEquals(0, opaque.findTransparency(ray, Double.POSITIVE_INFINITY, 1, 0.001), "The occluder must block the ray");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#add(Intersectable...)} - a change of a sub-collection
+     * after its parent was searched
+     */
+    @Test
+    void addToSubCollection() {
+        Geometries inner = new Geometries(new Sphere(new Point3D(10, 0, 0), 1)).setBVH(true);
+        Geometries outer = new Geometries(inner, new Sphere(new Point3D(-10, 0, 0), 1)).setBVH(true);
+        Ray ray = new Ray(new Point3D(0, 0, 0), new Vector(0, 1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The parent hierarchy is built before the change
+        assertNull(outer.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY), "There is no sphere on the ray yet");
+
+        //TC02: A sphere added to the sub-collection is found through the parent
+        inner.add(new Sphere(new Point3D(0, 10, 0), 1));
+        assertEquals(new Point3D(0, 9, 0), outer.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY)._point,
+                "The sphere added to the sub-collection must be found");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: A change two levels down updates the bounds of the top collection
+        Geometries top = new Geometries(outer);
+        top.getBoundingBox();
+        inner.add(new Sphere(new Point3D(0, 0, 50), 1));
+        assertEquals(new Point3D(0, 0, 49), top.findClosestGeoIntersection(
+                new Ray(new Point3D(0, 0, 30), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY)._point,
+                "The bounds of the top collection must contain the new sphere");
+    }
+}
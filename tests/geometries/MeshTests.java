@@ -0,0 +1,207 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing Mesh Class
+ *
+ * @author Aviel buta and Yakir Yohanan
+ */
+class MeshTests {
+
+    /**
+     * Tetrahedron with the vertices (0,0,0), (1,0,0), (0,1,0), (0,0,1), all the normals outside
+     */
+    private final Mesh tetrahedron = new Mesh(
+            new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
+            new int[]{0, 2, 1, 0, 1, 3, 0, 3, 2, 1, 2, 3});
+
+    /**
+     * Test method for {@link geometries.Mesh#Mesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Correct mesh
+        assertEquals(4, tetrahedron.getFacesCount(), "ERROR: wrong number of faces");
+
+        // TC02: Face refers to a missing vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "ERROR: constructed a mesh with a face of a missing vertex");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: No faces
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[0]),
+                "ERROR: constructed a mesh without faces");
+
+        // TC11: Incomplete vertex
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1}, new int[]{0, 1, 2}),
+                "ERROR: constructed a mesh with an incomplete vertex");
+
+        // TC12: Incomplete face
+        assertThrows(IllegalArgumentException.class,
+                () -> new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2, 0}),
+                "ERROR: constructed a mesh with an incomplete face");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getNormal(Point3D)}.
+     */
+    @Test
+    void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Point on the bottom face
+        assertEquals(new Vector(0, 0, -1), tetrahedron.getNormal(new Point3D(0.2, 0.2, 0)), "ERROR: wrong normal");
+
+        // TC02: Point on the slanted face
+        double n = 1 / Math.sqrt(3);
+        assertEquals(new Vector(n, n, n), tetrahedron.getNormal(new Point3D(0.2, 0.2, 0.6)), "ERROR: wrong normal");
+
+        // TC03: Point outside the mesh
+        assertThrows(IllegalArgumentException.class, () -> tetrahedron.getNormal(new Point3D(1, 1, 1)),
+                "ERROR: normal of a point outside the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the mesh (2 points)
+        List<GeoPoint> result = tetrahedron.findGeoIntersections(new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1)));
+        assertNotNull(result, "ERROR: the ray crosses the mesh");
+        assertEquals(2, result.size(), "ERROR: wrong number of points");
+        if (result.get(0)._point.getZ() > result.get(1)._point.getZ())
+            result = List.of(result.get(1), result.get(0));
+        assertEquals(new Point3D(0.2, 0.2, 0), result.get(0)._point, "ERROR: wrong point on the bottom face");
+        assertEquals(new Point3D(0.2, 0.2, 0.6), result.get(1)._point, "ERROR: wrong point on the slanted face");
+
+        // TC02: The intersection points have the normal of their face
+        assertEquals(new Vector(0, 0, -1), result.get(0).getNormal(), "ERROR: wrong normal of the intersection point");
+        assertEquals(new Vector(0, 0, -1), result.get(0)._geometry.getNormal(result.get(0)._point),
+                "ERROR: wrong normal of the geometry of the intersection point");
+
+        // TC03: The ray starts inside the mesh (1 point)
+        assertEquals(List.of(new Point3D(0.2, 0.2, 0.6)),
+                tetrahedron.findIntersections(new Ray(new Point3D(0.2, 0.2, 0.1), new Vector(0, 0, 1))),
+                "ERROR: the ray crosses only the slanted face");
+
+        // TC04: The ray misses the mesh
+        assertNull(tetrahedron.findGeoIntersections(new Ray(new Point3D(2, 2, -1), new Vector(0, 0, 1))),
+                "ERROR: the ray is outside the mesh");
+
+        // TC05: The ray goes away from the mesh
+        assertNull(tetrahedron.findGeoIntersections(new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, -1))),
+                "ERROR: the ray starts after the mesh");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The ray crosses the mesh through a vertex
+        assertNull(tetrahedron.findGeoIntersections(new Ray(new Point3D(1, 0, -1), new Vector(0, 0, 1))),
+                "ERROR: the vertices are not part of the faces");
+
+        // TC11: The ray is in the plane of a face
+        assertNull(tetrahedron.findGeoIntersections(new Ray(new Point3D(-1, 0.2, 0), new Vector(1, 0, 0))),
+                "ERROR: the ray is parallel to the faces it crosses");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Ray ray = new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest of two points
+        GeoPoint closest = tetrahedron.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+        assertNotNull(closest, "ERROR: the ray crosses the mesh");
+        assertEquals(new Point3D(0.2, 0.2, 0), closest._point, "ERROR: wrong closest point");
+        assertSame(tetrahedron, closest._geometry, "ERROR: the geometry of the point is not the mesh");
+        assertEquals(new Vector(0, 0, -1), closest.getNormal(), "ERROR: wrong normal of the closest point");
+
+        // TC02: The geometry of the point can be changed as any geometry
+        Material material = new Material().setKd(0.5);
+        closest._geometry.setMaterial(material);
+        assertSame(material, tetrahedron.getMaterial(), "ERROR: the material of the mesh is not changed");
+
+        // TC03: The mesh is farther than the distance
+        assertNull(tetrahedron.findClosestGeoIntersection(ray, 0.5), "ERROR: the mesh is farther than the distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The same point as in the list of all the intersections
+        assertEquals(ray.getClosestGeoPoint(tetrahedron.findGeoIntersections(ray)), closest,
+                "ERROR: the closest point is not the closest of all the intersections");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findClosestGeoIntersections(Ray[], double[], GeoPoint[])}.
+     */
+    @Test
+    void testFindClosestGeoIntersections() {
+        Ray[] rays = {
+                new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1)), // the bottom face
+                new Ray(new Point3D(0.2, 0.2, 0.1), new Vector(0, 0, 1)), // the slanted face from inside
+                null,
+                new Ray(new Point3D(2, 2, -1), new Vector(0, 0, 1)) // nothing
+        };
+        double[] maxDistances = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 1};
+        GeoPoint[] closest = new GeoPoint[rays.length];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The packet gets the same points as each ray alone
+        tetrahedron.findClosestGeoIntersections(rays, maxDistances, closest);
+        assertEquals(new Point3D(0.2, 0.2, 0), closest[0]._point, "ERROR: wrong point on the bottom face");
+        assertEquals(new Point3D(0.2, 0.2, 0.6), closest[1]._point, "ERROR: wrong point on the slanted face");
+        assertNull(closest[2], "ERROR: the null ray must be skipped");
+        assertNull(closest[3], "ERROR: the ray is outside the mesh");
+        assertEquals(1, maxDistances[0], 0.00001, "ERROR: the distance is not shrunk to the point");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A closer point of another geometry is kept
+        GeoPoint[] previous = new GeoPoint[1];
+        tetrahedron.findClosestGeoIntersections(new Ray[]{rays[0]}, new double[]{0.5}, previous);
+        assertNull(previous[0], "ERROR: the mesh is farther than the distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findTransparency(Ray, double, double, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Mesh glass = new Mesh(
+                new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
+                new int[]{0, 2, 1, 0, 1, 3, 0, 3, 2, 1, 2, 3});
+        glass.setMaterial(new Material().setKt(0.5));
+        Ray ray = new Ray(new Point3D(0.2, 0.2, -1), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses two transparent faces
+        assertEquals(0.25, glass.findTransparency(ray, Double.POSITIVE_INFINITY, 1, 0.001), 0.00001,
+                "ERROR: wrong transparency");
+
+        // TC02: The distance ends inside the mesh
+        assertEquals(0.5, glass.findTransparency(ray, 1.3, 1, 0.001), 0.00001, "ERROR: wrong transparency");
+
+        // TC03: Opaque mesh
+        assertEquals(0, tetrahedron.findTransparency(ray, Double.POSITIVE_INFINITY, 1, 0.001), 0.00001,
+                "ERROR: the opaque mesh must block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The transparency drops below the minimum
+        assertEquals(0, glass.findTransparency(ray, Double.POSITIVE_INFINITY, 1, 0.3), 0.00001,
+                "ERROR: the ray must be blocked below the minimal transparency");
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import primitives.*;
 
+import java.util.List;
+
 
 /**
  * Testing Polygon Class
@@ -91,4 +93,52 @@ public class PolygonTests {
         double sqrt3 = Math.sqrt(1d / 3);
         assertEquals(new Vector(sqrt3, sqrt3, sqrt3), pl.getNormal(new Point3D(0, 0, 1)), "Bad normal to trinagle");
     }
+
+    /**
+     * Test method for {@link geometries.Polygon#findIntersections(Ray)}.
+     */
+    @Test
+    public void testFindIntersections() {
+        Polygon square = new Polygon(new Point3D(0, 0, 0), new Point3D(2, 0, 0), new Point3D(2, 2, 0),
+                new Point3D(0, 2, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The intersection point is in the polygon
+        assertEquals(List.of(new Point3D(1, 1, 0)),
+                square.findIntersections(new Ray(new Point3D(1, 1, 1), new Vector(0, 0, -1))),
+                "The point supposed to be in the polygon");
+
+        // TC02: The intersection point is outside the polygon, against edge
+        assertNull(square.findIntersections(new Ray(new Point3D(1, -1, 1), new Vector(0, 0, -1))),
+                "The point supposed to be outside the polygon, against edge");
+
+        // TC03: The intersection point is outside the polygon, against vertex
+        assertNull(square.findIntersections(new Ray(new Point3D(-1, -1, 1), new Vector(0, 0, -1))),
+                "The point supposed to be outside the polygon, against vertex");
+
+        // TC04: The plane is behind the ray
+        assertNull(square.findIntersections(new Ray(new Point3D(1, 1, 1), new Vector(0, 0, 1))),
+                "The polygon is behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The point is on edge (the edges are not part of the polygon, as in the triangle)
+        assertNull(square.findIntersections(new Ray(new Point3D(1, 0, 1), new Vector(0, 0, -1))),
+                "The point supposed to be on edge");
+
+        // TC11: The point is in vertex
+        assertNull(square.findIntersections(new Ray(new Point3D(0, 0, 1), new Vector(0, 0, -1))),
+                "The point supposed to be in vertex");
+
+        // TC12: The point is on edge's continuation
+        assertNull(square.findIntersections(new Ray(new Point3D(3, 0, 1), new Vector(0, 0, -1))),
+                "The point supposed to be on edge's continuation");
+
+        // TC13: The ray is parallel to the polygon
+        assertNull(square.findIntersections(new Ray(new Point3D(1, 1, 1), new Vector(1, 0, 0))),
+                "The ray is parallel to the polygon");
+
+        // TC14: The ray starts in the polygon
+        assertNull(square.findIntersections(new Ray(new Point3D(1, 1, 0), new Vector(0, 0, -1))),
+                "The ray starts in the polygon");
+    }
 }
@@ -1,6 +1,7 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Material;
 import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
@@ -9,6 +10,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Testing Sphere Class
@@ -118,4 +120,42 @@ class SphereTests {
                 "Ray starts after the tangent point");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Sphere#findClosestGeoIntersection(Ray, double)}
+     * and {@link Sphere#findTransparency(Ray, double, double, double)}.
+     */
+    @Test
+    public void findClosestAndAnyHit() {
+        Sphere sphere = new Sphere(new Point3D(1, 0, 0), 1d);
+        sphere.setMaterial(new Material().setKt(0.5));
+        Ray ray = new Ray(new Point3D(-1, 0, 0), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest intersection is the nearer side
+        assertEquals(new Point3D(0, 0, 0), sphere.findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY)._point,
+                "Bad closest intersection");
+
+        // TC02: Ray starts inside the sphere - the only intersection is the farther side
+        assertEquals(new Point3D(2, 0, 0),
+                sphere.findClosestGeoIntersection(new Ray(new Point3D(0.5, 0, 0), new Vector(1, 0, 0)), 10)._point,
+                "Bad closest intersection from inside");
+
+        // TC03: No intersection before the distance
+        assertNull(sphere.findClosestGeoIntersection(ray, 0.5), "Intersection beyond the distance");
+
+        // TC04: Both sides attenuate the light
+        assertEquals(0.25, sphere.findTransparency(ray, 10, 1, 0.01), 1e-10, "Bad transparency of two sides");
+
+        // TC05: The first side blocks the light
+        assertTrue(sphere.findTransparency(ray, 10, 1, 0.6) == 0, "The ray should be blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The distance ends inside the sphere - only the nearer side attenuates the light
+        assertEquals(0.5, sphere.findTransparency(ray, 2, 1, 0.01), 1e-10, "Bad transparency of one side");
+
+        // TC11: Ray is tangent to the sphere - no attenuation
+        assertEquals(1, sphere.findTransparency(new Ray(new Point3D(2, -1, -1), new Vector(0, 1, 1)), 10, 1, 0.01),
+                1e-10, "Tangent ray should not be attenuated");
+    }
+}
@@ -0,0 +1,157 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing TriangleBatch Class
+ * The kernel of the batches is tested against the scalar kernel (the kernels are the same kernel if the
+ * jdk.incubator.vector module is not in the boot layer).
+ *
+ * @author Aviel buta and Yakir Yohanan
+ */
+class TriangleBatchTests {
+
+    /**
+     * The kernels to test
+     */
+    private final TriangleBatch.Kernel[] kernels = {TriangleBatch.SCALAR, TriangleBatch.KERNEL};
+
+    /**
+     * Batch of 6 slots: triangles parallel to the xy plane at z = 1, 2, 3, 3, empty slot, z = 0.5 on the side
+     */
+    private final TriangleBatch batch = new TriangleBatch(6);
+
+    /**
+     * c-tor fill the batch
+     */
+    TriangleBatchTests() {
+        for (int i = 0; i < 4; ++i) {
+            double z = i < 3 ? i + 1 : 3;
+            batch.set(i, -1, -1, z, 3, -1, z, -1, 3, z);
+        }
+        batch.set(5, 10, 10, 0.5, 12, 10, 0.5, 10, 12, 0.5);
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleBatch.Kernel#closest}.
+     */
+    @Test
+    void closest() {
+        double[] distance = new double[1];
+        for (TriangleBatch.Kernel kernel : kernels) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The closest of the crossed triangles
+            assertEquals(0, kernel.closest(batch, 0, 6, 0, 0, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "Bad closest triangle");
+            assertEquals(1, distance[0], 1e-12, "Bad closest distance");
+
+            // TC02: The closest triangles are not in the range
+            assertEquals(1, kernel.closest(batch, 1, 4, 0, 0, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "Bad closest triangle in a range");
+
+            // TC03: The ray misses all the triangles
+            assertEquals(-1, kernel.closest(batch, 0, 6, 5, 5, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "A missed triangle is found");
+
+            // TC04: The triangles are farther than the distance
+            assertEquals(-1, kernel.closest(batch, 0, 6, 0, 0, 0, 0, 0, 1, 0.9, distance),
+                    "A far triangle is found");
+            assertEquals(0.9, distance[0], "The distance is changed without an intersection");
+
+            // TC05: A triangle in the second vector of the range
+            assertEquals(5, kernel.closest(batch, 0, 6, 10.5, 10.5, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "Bad closest triangle after the first lanes");
+
+            // =============== Boundary Values Tests ==================
+            // TC10: Two triangles at the same distance, the first one is found
+            assertEquals(2, kernel.closest(batch, 2, 4, 0, 0, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "Bad closest triangle of equal distances");
+
+            // TC11: The ray crosses the edges of the triangles
+            assertEquals(-1, kernel.closest(batch, 0, 6, 1, 1, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "An edge is found");
+
+            // TC12: Empty range
+            assertEquals(-1, kernel.closest(batch, 4, 4, 0, 0, 0, 0, 0, 1, Double.POSITIVE_INFINITY, distance),
+                    "A triangle is found in an empty range");
+
+            // TC13: The ray is parallel to the triangles
+            assertEquals(-1, kernel.closest(batch, 0, 6, 0, 0, 1, 1, 0, 0, Double.POSITIVE_INFINITY, distance),
+                    "A parallel triangle is found");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleBatch.Kernel#count}.
+     */
+    @Test
+    void count() {
+        for (TriangleBatch.Kernel kernel : kernels) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: All the crossed triangles
+            assertEquals(4, kernel.count(batch, 0, 6, 0, 0, 0, 0, 0, 1, Double.POSITIVE_INFINITY),
+                    "Bad number of triangles");
+
+            // TC02: Only the triangles closer than the distance
+            assertEquals(2, kernel.count(batch, 0, 6, 0, 0, 0, 0, 0, 1, 2.5), "Bad number of close triangles");
+
+            // TC03: The ray goes away from the triangles
+            assertEquals(0, kernel.count(batch, 0, 6, 0, 0, 0, 0, 0, -1, Double.POSITIVE_INFINITY),
+                    "Triangles behind the ray are counted");
+
+            // =============== Boundary Values Tests ==================
+            // TC10: A triangle at the distance is counted
+            assertEquals(2, kernel.count(batch, 0, 6, 0, 0, 0, 0, 0, 1, 2), "A triangle at the distance is lost");
+        }
+    }
+
+    /**
+     * Test the kernel against the intersection of {@link Triangle}
+     */
+    @Test
+    void sameAsTriangle() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Random rays at a random batch, the kernels find the intersections of the triangles
+        Random random = new Random(7);
+        int size = 11;
+        TriangleBatch triangles = new TriangleBatch(size);
+        for (int i = 0; i < size; ++i) {
+            double[] v = new double[9];
+            for (int k = 0; k < 9; ++k) v[k] = random.nextDouble() * 2 - 1;
+            triangles.set(i, v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8]);
+        }
+
+        double[] distance = new double[1];
+        for (int r = 0; r < 2000; ++r) {
+            double ox = random.nextDouble() * 4 - 2, oy = random.nextDouble() * 4 - 2, oz = random.nextDouble() * 4 - 2;
+            double dx = random.nextDouble() - 0.5, dy = random.nextDouble() - 0.5, dz = random.nextDouble() - 0.5;
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            dx /= length;
+            dy /= length;
+            dz /= length;
+
+            int closest = -1, count = 0;
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < size; ++i) {
+                double t = triangles.intersect(i, ox, oy, oz, dx, dy, dz);
+                if (t < min) {
+                    min = t;
+                    closest = i;
+                }
+                if (t != TriangleBatch.MISS) ++count;
+            }
+
+            for (TriangleBatch.Kernel kernel : kernels) {
+                assertEquals(closest, kernel.closest(triangles, 0, size, ox, oy, oz, dx, dy, dz,
+                        Double.POSITIVE_INFINITY, distance), "Bad closest triangle");
+                if (closest >= 0) assertEquals(min, distance[0], "Bad closest distance");
+                assertEquals(count, kernel.count(triangles, 0, size, ox, oy, oz, dx, dy, dz,
+                        Double.POSITIVE_INFINITY), "Bad number of triangles");
+            }
+        }
+    }
+}
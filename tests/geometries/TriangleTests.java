@@ -9,6 +9,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Testing Triangle Class
@@ -51,4 +52,28 @@ class TriangleTests {
         assertNull(t.findIntersections(new Ray(new Point3D(1, 0, 0), new Vector(-1, 0.1, 0))),
                 "The point supposed to be on edge's continuation");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#findGeoIntersections(Ray)} - the data kept in the GeoPoint
+     */
+    @Test
+    void findGeoIntersectionsData() {
+        Triangle t = new Triangle(new Point3D(0, 1, 0), new Point3D(0, 5, 0), new Point3D(0, 3, 5));
+        Ray ray = new Ray(new Point3D(1, 3, 0), new Vector(-1, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The GeoPoint keeps the ray parameter of the point
+        Intersectable.GeoPoint gp = t.findGeoIntersections(ray).get(0);
+        assertEquals(Math.sqrt(2), gp.getParameter(ray), 1e-10, "Bad ray parameter of the intersection");
+
+        // TC02: The normal at the point is the normal of the plane of the triangle, the same on every call
+        Vector n = gp.getNormal();
+        assertEquals(new Vector(1, 0, 0), n.dotProduct(new Vector(1, 0, 0)) > 0 ? n : n.scale(-1),
+                "Bad normal at the intersection");
+        assertSame(n, gp.getNormal(), "The normal should be calculated once");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The normal at a vertex is the normal of the plane too
+        assertEquals(n, t.getNormal(new Point3D(0, 1, 0)), "Bad normal at a vertex");
+    }
+}
@@ -5,6 +5,8 @@ import primitives.Point3D;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -27,11 +29,63 @@ class TubeTests {
         assertEquals(new Vector(0, 0, 1), tu.getNormal(new Point3D(1, 0, 1)), "Bad normal to tube");
 
         // =============== Boundary Values Tests ==================
-        // Test when the point is orthogonal to the head of the ray.
-        // Causes to the ZERO vector.
-        assertThrows(IllegalArgumentException.class, () -> {
-                    tu.getNormal(new Point3D(0, 0, 1));
-                },
-                "can't be ZERO vector");
+        // TC10: The point is orthogonal to the head of the ray (the head is the center)
+        assertEquals(new Vector(0, 0, 1), tu.getNormal(new Point3D(0, 0, 1)), "Bad normal in front of the axis head");
+
+        // TC11: The normal of an intersection in front of the axis head
+        Tube tube = new Tube(new Ray(new Point3D(0, 0, 0), new Vector(0, 1, 0)), 20);
+        assertEquals(new Vector(0, 0, 1), tube.findClosestGeoIntersection(
+                        new Ray(new Point3D(0, 0, 1000), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY).getNormal(),
+                "Bad normal of an intersection in front of the axis head");
+    }
+
+    /**
+     * Test method for {@link geometries.Tube#findIntersections(primitives.Ray)}.
+     */
+    @Test
+    void findIntersections() {
+        Tube tube = new Tube(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, 1)), 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray's line is outside the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point3D(2, 0, 0), new Vector(0, 1, 1))),
+                "Ray's line out of tube");
+
+        // TC02: Ray starts before and crosses the tube (2 points)
+        assertEquals(List.of(new Point3D(-1, 0, 1), new Point3D(1, 0, 3)),
+                tube.findIntersections(new Ray(new Point3D(-2, 0, 0), new Vector(1, 0, 1))),
+                "Ray crosses tube");
+
+        // TC03: Ray starts inside the tube (1 point)
+        assertEquals(List.of(new Point3D(1, 0, 1)),
+                tube.findIntersections(new Ray(new Point3D(0, 0, 0), new Vector(1, 0, 1))),
+                "Ray starts inside the tube");
+
+        // TC04: Ray starts after the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point3D(2, 0, 0), new Vector(1, 0, 1))),
+                "Ray starts after the tube");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray is parallel to the axis (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point3D(0.5, 0, 0), new Vector(0, 0, 1))),
+                "Ray parallel to the axis");
+
+        // TC11: Ray is tangent to the tube (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point3D(1, -1, 0), new Vector(0, 1, 0))),
+                "Ray tangent to the tube");
+
+        // TC12: Ray starts at the tube and goes inside (1 point)
+        assertEquals(List.of(new Point3D(1, 0, 2)),
+                tube.findIntersections(new Ray(new Point3D(-1, 0, 0), new Vector(1, 0, 1))),
+                "Ray starts at the tube and goes inside");
+
+        // TC13: Ray starts at the tube and goes outside (0 points)
+        assertNull(tube.findIntersections(new Ray(new Point3D(1, 0, 0), new Vector(1, 0, 1))),
+                "Ray starts at the tube and goes outside");
+
+        // TC14: Ray crosses the axis orthogonally (2 points)
+        assertEquals(List.of(new Point3D(0, -1, 5), new Point3D(0, 1, 5)),
+                tube.findIntersections(new Ray(new Point3D(0, -3, 5), new Vector(0, 1, 0))),
+                "Ray crosses the axis");
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package lights;
 
 import elements.*;
 import geometries.Geometry;
+import geometries.Plane;
 import geometries.Sphere;
 import geometries.Triangle;
 import org.junit.jupiter.api.Test;
@@ -199,5 +200,51 @@ public class LightsTests {
         render.writeToImage();
     }
 
-}
+    /**
+     * Produce a picture of a floor lighted by hundreds of small point lights,
+     * each point is lighted only by the light sources near it
+     */
+    @Test
+    public void manySmallLights() {
+        scene2._geometries.add(new Plane(new Point3D(0, 0, -150), new Vector(0, 0, 1)) //
+                .setMaterial(new Material().setKd(0.6).setKs(0.2).setNShininess(30)));
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j)
+                scene2._lightSourceList.add(new PointLight(new Color(i * 100, 1000, j * 100), //
+                        new Point3D(-950 + 100 * i, -950 + 100 * j, -140)).setKq(0.1));
+
+        ImageWriter imageWriter = new ImageWriter("lightManySmallLights", 500, 500);
+        Render render = new Render()//
+                .setImageWriter(imageWriter) //
+                .setCamera(new Camera(new Point3D(0, 0, 1000), new Vector(0, 1, 0), new Vector(0, 0, -1)) //
+                        .setViewPlaneSize(2000, 2000).setViewPlaneDistance(1000)) //
+                .setRayTracerBase(new RayTracerBasic(scene2).setMaxSkippedColor(20));
+        render.renderImage();
+        render.writeToImage();
+    }
 
+    /**
+     * Produce a picture of a floor lighted by thousands of small point lights,
+     * each point is lighted by a few lights sampled by their importance
+     */
+    @Test
+    public void thousandsOfLightsSampled() {
+        scene2._geometries.add(new Plane(new Point3D(0, 0, -150), new Vector(0, 0, 1)) //
+                .setMaterial(new Material().setKd(0.6).setKs(0.2).setNShininess(30)));
+        for (int i = 0; i < 50; ++i)
+            for (int j = 0; j < 50; ++j)
+                scene2._lightSourceList.add(new PointLight(new Color(i * 40, 1000, j * 40), //
+                        new Point3D(-980 + 40 * i, -980 + 40 * j, -140)).setKq(0.1));
+        scene2._lightSourceList.add(new DirectionalLight(new Color(30, 30, 30), new Vector(1, 1, -1)));
+
+        Camera camera = new Camera(new Point3D(0, 0, 1000), new Vector(0, 1, 0), new Vector(0, 0, -1)) //
+                .setViewPlaneSize(2000, 2000).setViewPlaneDistance(1000);
+        ImageWriter imageWriter = new ImageWriter("lightThousandsOfLightsSampled", 500, 500);
+        Render render = new Render()//
+                .setImageWriter(imageWriter) //
+                .setCamera(camera) //
+                .setRayTracerBase(new RayTracerBasic(scene2).setLightSamples(8));
+        render.renderImage();
+        render.writeToImage();
+    }
+}
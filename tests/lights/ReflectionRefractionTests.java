@@ -169,4 +169,32 @@ public class ReflectionRefractionTests {
         render.renderImage();
         render.writeToImage();
     }
+
+    /**
+     * Produce a picture of many nested transparent spheres, the rays pass through more surfaces
+     * than the default maximal level allows
+     */
+    @Test
+    public void refractionNestedSpheresTest() {
+        Camera camera = new Camera(new Point3D(0, 0, 1000), new Vector(0, 1, 0), new Vector(0, 0, -1)) //
+                .setViewPlaneSize(150, 150).setViewPlaneDistance(1000);
+
+        scene.setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), 0.1));
+
+        for (int i = 1; i <= 50; ++i)
+            scene._geometries.add(new Sphere(new Point3D(0, 0, -50), 1.4 * i) //
+                    .setEmission(new Color(2, 1, 4)) //
+                    .setMaterial(new Material().setKd(0.02).setKs(0.1).setNShininess(100).setKt(0.95)));
+        scene._lightSourceList.add(new PointLight(new Color(500, 300, 200), new Point3D(100, 100, 200)) //
+                .setKl(0.0004).setKq(0.0000006));
+
+        ImageWriter imageWriter = new ImageWriter("refractionNestedSpheres", 300, 300);
+        Render render = new Render() //
+                .setImageWriter(imageWriter) //
+                .setCamera(camera) //
+                .setRayTracerBase(new RayTracerBasic(scene).setMaxLevel(150));
+
+        render.renderImage();
+        render.writeToImage();
+    }
 }
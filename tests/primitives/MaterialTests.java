@@ -0,0 +1,58 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing Material Class
+ *
+ * @author Aviel buta and Yakir Yohanan
+ */
+class MaterialTests {
+
+    /**
+     * Test method for {@link primitives.Material#powShininess(double)}.
+     */
+    @Test
+    void powShininess() {
+        Material material = new Material();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Shininess with several set bits
+        material.setNShininess(60);
+        assertEquals(Math.pow(0.9, 60), material.powShininess(0.9), 1e-14, "ERROR: wrong power of 60");
+
+        // TC02: Shininess of a power of two
+        material.setNShininess(64);
+        assertEquals(Math.pow(0.75, 64), material.powShininess(0.75), 1e-14, "ERROR: wrong power of 64");
+
+        // TC03: The shininess field is read on each call
+        material.nShininess = 3;
+        assertEquals(0.125, material.powShininess(0.5), 1e-14, "ERROR: the shininess field is ignored");
+
+        // TC04: The chain is prepared again for a new shininess
+        material.setNShininess(60).setNShininess(5);
+        assertEquals(Math.pow(0.9, 5), material.powShininess(0.9), 1e-14, "ERROR: wrong power after a change");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero shininess
+        material.setNShininess(0);
+        assertEquals(1, material.powShininess(0.3), 1e-14, "ERROR: wrong power of 0");
+
+        // TC11: Shininess of 1
+        material.setNShininess(1);
+        assertEquals(0.3, material.powShininess(0.3), 1e-14, "ERROR: wrong power of 1");
+
+        // TC12: Zero value
+        material.setNShininess(20);
+        assertEquals(0, material.powShininess(0), 1e-14, "ERROR: wrong power of zero value");
+
+        // TC13: Value of 1
+        assertEquals(1, material.powShininess(1), 1e-14, "ERROR: wrong power of value 1");
+
+        // TC14: Negative shininess
+        material.setNShininess(-2);
+        assertEquals(4, material.powShininess(0.5), 1e-14, "ERROR: wrong negative power");
+    }
+}
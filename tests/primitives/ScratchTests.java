@@ -0,0 +1,81 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing Scratch Class
+ *
+ * @author Aviel buta and Yakir Yohanan
+ */
+class ScratchTests {
+
+    /**
+     * Test method for the vector registers of {@link primitives.Scratch}.
+     */
+    @Test
+    void vectors() {
+        Scratch scratch = Scratch.get();
+        Vector v = new Vector(1, 2, 3);
+        Vector n = new Vector(0, 0, 1);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: In place reflection (v - 2 * (v * n) * n)
+        assertEquals(new Vector(1, 2, -3),
+                scratch.setVector(0, v).addScaled(0, n, -2 * v.dotProduct(n)).toVector(0),
+                "ERROR: wrong in place reflection");
+
+        // TC02: Subtraction of points and normalization
+        scratch.setVector(1, new Point3D(1, 4, 5), new Point3D(1, 1, 1)).normalize(1);
+        assertEquals(new Vector(0, 0.6, 0.8), scratch.toVector(1), "ERROR: wrong normalized subtraction");
+        assertEquals(0.8, scratch.dotProduct(1, n), 0.00001, "ERROR: wrong dot product");
+
+        // TC03: The registers are separated
+        assertEquals(new Vector(1, 2, -3), scratch.toVector(0), "ERROR: the registers are not separated");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The register is the zero vector
+        assertThrows(IllegalArgumentException.class, () -> scratch.setVector(2, v).addScaled(2, v, -1).toVector(2),
+                "ERROR: toVector() of the zero vector does not throw an exception");
+    }
+
+    /**
+     * Test method for the color registers of {@link primitives.Scratch}.
+     */
+    @Test
+    void colors() {
+        Scratch scratch = Scratch.get();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Accumulation of scaled colors
+        scratch.setColor(0, new Color(10, 20, 30)).addColor(0, new Color(100, 100, 100), 0.5);
+        assertTrue(new Color(60, 70, 80).isEqual(scratch.toColor(0)), "ERROR: wrong accumulated color");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Adding black color
+        scratch.setColor(1, Color.BLACK).addColor(1, Color.BLACK, 1);
+        assertTrue(Color.BLACK.isEqual(scratch.toColor(1)), "ERROR: black color must stay black");
+    }
+
+    /**
+     * Test method for the value registers of {@link primitives.Scratch}.
+     */
+    @Test
+    void values() {
+        Scratch scratch = Scratch.get();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The value of a register
+        assertEquals(0.25, scratch.setValue(0, 0.25).getValue(0), "ERROR: wrong value");
+
+        // TC02: The registers are separated
+        scratch.setValue(1, 3);
+        assertEquals(0.25, scratch.getValue(0), "ERROR: the registers are not separated");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The last register
+        assertEquals(-1, scratch.setValue(Scratch.VALUE_REGISTERS - 1, -1).getValue(Scratch.VALUE_REGISTERS - 1),
+                "ERROR: wrong value of the last register");
+    }
+}
@@ -0,0 +1,64 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing SplittableSampler Class
+ *
+ * @author Aviel buta and Yakir Yohanan
+ */
+class SplittableSamplerTests {
+
+    /**
+     * Test method for {@link primitives.SplittableSampler#startSequence(long)}.
+     */
+    @Test
+    void startSequence() throws InterruptedException {
+        Sampler sampler = new SplittableSampler(42);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same key gives the same sequence
+        sampler.startSequence(5);
+        double first = sampler.nextDouble(), second = sampler.nextDouble();
+        sampler.startSequence(5);
+        assertEquals(first, sampler.nextDouble(), "ERROR: the same key must give the same sequence");
+        assertEquals(second, sampler.nextDouble(), "ERROR: the same key must give the same sequence");
+
+        // TC02: Different keys give different sequences
+        sampler.startSequence(6);
+        assertNotEquals(first, sampler.nextDouble(), "ERROR: different keys must give different sequences");
+
+        // TC03: The same key gives the same sequence on another thread
+        double[] other = new double[1];
+        Thread thread = new Thread(() -> {
+            sampler.startSequence(5);
+            other[0] = sampler.nextDouble();
+        });
+        thread.start();
+        thread.join();
+        assertEquals(first, other[0], "ERROR: the sequence must not depend on the thread");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Samplers with different seeds
+        Sampler another = new SplittableSampler(43);
+        another.startSequence(5);
+        assertNotEquals(first, another.nextDouble(), "ERROR: different seeds must give different sequences");
+    }
+
+    /**
+     * Test method for {@link primitives.Sampler#random(double, double)}.
+     */
+    @Test
+    void random() {
+        Sampler sampler = new SplittableSampler(42);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the numbers are in the range
+        for (int i = 0; i < 1000; i++) {
+            double value = sampler.random(-2, 3);
+            assertTrue(value >= -2 && value < 3, "ERROR: the number is out of the range");
+        }
+    }
+}
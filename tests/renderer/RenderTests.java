@@ -3,14 +3,26 @@ package renderer;
 
 import elements.AmbientLight;
 import elements.Camera;
+import elements.PointLight;
+import geometries.Plane;
 import geometries.Sphere;
 import geometries.Triangle;
 import org.junit.jupiter.api.Test;
 import primitives.Color;
+import primitives.Material;
 import primitives.Point3D;
+import primitives.Ray;
 import primitives.Vector;
 import scene.Scene;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * Test rendering a basic image
  *
@@ -92,4 +104,318 @@ public class RenderTests {
         render.printGrid(100, new Color(java.awt.Color.WHITE));
         render.writeToImage();
     }
+
+    /**
+     * Test method for the adaptive (variance driven) super sampling of {@link renderer.Render}
+     */
+    @Test
+    public void adaptiveSuperSampling() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A flat image stops after the first samples of each pixel
+        Render flat = samplingRender(5, ray -> WHITE).setSamplesPerPixel(4).setAdaptiveSampling(64, 1);
+        flat.renderImage();
+        for (int[] row : flat.getRaysPerPixel())
+            for (int rays : row)
+                assertEquals(4, rays, "A flat pixel needs only the first samples");
+
+        // TC02: A pixel on an edge is sampled up to the maximal samples, the others stop early
+        Render edge = samplingRender(5, ray -> ray.getDir().getX() > 0 ? WHITE : Color.BLACK)
+                .setSamplesPerPixel(16).setAdaptiveSampling(64, 1);
+        edge.renderImage();
+        for (int[] row : edge.getRaysPerPixel())
+            for (int col = 0; col < row.length; ++col)
+                assertEquals(col == 2 ? 64 : 16, row[col], "Only the edge pixels need the maximal samples");
+
+        // TC03: The first stratified samples are spread over the whole pixel when the sampling stops early
+        List<Ray> traced = Collections.synchronizedList(new ArrayList<>());
+        Render stratified = samplingRender(1, ray -> {
+            traced.add(ray);
+            return WHITE;
+        }).setSamplingPattern(Render.SamplingPattern.STRATIFIED).setSamplesPerPixel(16).setAdaptiveSampling(64, 1);
+        stratified.renderImage();
+        assertEquals(16, traced.size(), "A flat pixel needs only the first samples");
+        assertTrue(traced.stream().anyMatch(ray -> ray.getDir().getX() > 0),
+                "The first stratified samples are all on the left side of the pixel");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The maximal samples are not more than the samples per pixel - a fixed number of samples
+        Render fixed = samplingRender(5, ray -> ray.getDir().getX() > 0 ? WHITE : Color.BLACK)
+                .setSamplesPerPixel(9).setAdaptiveSampling(4, 1);
+        fixed.renderImage();
+        assertEquals(9 * 25, fixed.getRaysCount(), "Adaptive sampling must be off");
+
+        // TC11: The tolerance must be positive and the maximal samples not negative
+        assertThrows(IllegalArgumentException.class, () -> new Render().setAdaptiveSampling(64, 0),
+                "Zero tolerance must throw");
+        assertThrows(IllegalArgumentException.class, () -> new Render().setAdaptiveSampling(64, -1),
+                "Negative tolerance must throw");
+        assertThrows(IllegalArgumentException.class, () -> new Render().setAdaptiveSampling(-1, 1),
+                "Negative maximal samples must throw");
+        assertThrows(IllegalArgumentException.class, () -> new Render().setSamplesPerPixel(0),
+                "Zero samples per pixel must throw");
+    }
+
+    /**
+     * Test method for the tiles scheduler of {@link renderer.Render#renderImage()}
+     */
+    @Test
+    public void tilesScheduler() {
+        Function<Ray, Color> gradient = ray -> new Color(255 * Math.abs(ray.getDir().getX()),
+                255 * Math.abs(ray.getDir().getY()), 0);
+
+        // The image rendered in the current thread, ray by ray
+        // (the random numbers of a tile depend only on its position, so they are the same in every render)
+        PixelsWriter reference = new PixelsWriter(50, 37);
+        new Render().setImageWriter(reference).setCamera(camera).setRayTracerBase(new FunctionTracer(gradient))
+                .setTileSize(7).setPacketSize(1).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Each tile is rendered once by several threads, in both orders and with ray packets
+        for (Render.TileOrder order : Render.TileOrder.values())
+            for (int threads = 1; threads <= 3; threads += 2) {
+                PixelsWriter writer = new PixelsWriter(50, 37);
+                FunctionTracer tracer = new FunctionTracer(gradient);
+                new Render().setImageWriter(writer).setCamera(camera).setRayTracerBase(tracer)
+                        .setMultithreading(threads).setTileSize(7).setTileOrder(order).renderImage();
+
+                String message = " (" + order + ", " + threads + " threads)";
+                assertEquals(50 * 37, tracer.traced.get(), "Each pixel must be traced once" + message);
+                for (int row = 0; row < 37; ++row)
+                    for (int col = 0; col < 50; ++col) {
+                        assertEquals(1, writer.writes[row][col], "Each pixel must be written once" + message);
+                        assertEquals(reference.pixels[row][col], writer.pixels[row][col], "Wrong pixel color" + message);
+                    }
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: One tile bigger than the image
+        PixelsWriter writer = new PixelsWriter(50, 37);
+        FunctionTracer tracer = new FunctionTracer(gradient);
+        new Render().setImageWriter(writer).setCamera(camera).setRayTracerBase(tracer)
+                .setMultithreading(3).setTileSize(64).renderImage();
+        assertEquals(50 * 37, tracer.traced.get(), "Each pixel must be traced once in one tile");
+
+        // TC11: The tile size must be positive
+        assertThrows(IllegalArgumentException.class, () -> new Render().setTileSize(0), "Zero tile size must throw");
+    }
+
+    /**
+     * Test method for the corner cache of the adaptive grid of {@link renderer.Render}
+     */
+    @Test
+    public void adaptiveGridCornerCache() {
+        // A disc and a diagonal edge, so the grid goes deeper in some of the pixels
+        Function<Ray, Color> shapes = ray -> {
+            double x = ray.getDir().getX(), y = ray.getDir().getY();
+            return x * x + y * y < 0.5 ? WHITE : x > y ? new Color(200, 50, 0) : Color.BLACK;
+        };
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The cached and the uncached grids give the same image, with less rays
+        PixelsWriter cached = new PixelsWriter(20, 20), uncached = new PixelsWriter(20, 20);
+        Render cachedRender = new Render().setImageWriter(cached).setCamera(camera)
+                .setRayTracerBase(new FunctionTracer(shapes)).setAdaptiveGrid(true).setTileSize(8);
+        Render uncachedRender = new Render().setImageWriter(uncached).setCamera(camera)
+                .setRayTracerBase(new FunctionTracer(shapes)).setAdaptiveGrid(true).setTileSize(8)
+                .setCacheCorners(false);
+        cachedRender.renderImage();
+        uncachedRender.renderImage();
+        for (int row = 0; row < 20; ++row)
+            for (int col = 0; col < 20; ++col)
+                assertEquals(uncached.pixels[row][col], cached.pixels[row][col], "The cache must not change the image");
+        assertTrue(cachedRender.getRaysCount() < uncachedRender.getRaysCount(), "The cache must save rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Several threads share nothing but the image - the same image again
+        PixelsWriter threaded = new PixelsWriter(20, 20);
+        new Render().setImageWriter(threaded).setCamera(camera).setRayTracerBase(new FunctionTracer(shapes))
+                .setAdaptiveGrid(true).setTileSize(8).setMultithreading(3).renderImage();
+        for (int row = 0; row < 20; ++row)
+            for (int col = 0; col < 20; ++col)
+                assertEquals(cached.pixels[row][col], threaded.pixels[row][col], "The threads must not change the image");
+    }
+
+    /**
+     * Test method for the adaptive grid settings and the rays counts of {@link renderer.Render}
+     */
+    @Test
+    public void adaptiveGridSettingsAndRaysCount() {
+        // All the lattice points have different colors, so with zero tolerance the grid always goes to its maximal depth
+        Function<Ray, Color> gradient = ray -> new Color(128 + 100 * ray.getDir().getX(), 128 + 100 * ray.getDir().getY(), 0);
+        Render render = new Render().setImageWriter(new PixelsWriter(6, 4)).setCamera(camera)
+                .setRayTracerBase(new FunctionTracer(gradient)).setPacketSize(1);
+        assertNull(render.getRaysPerPixel(), "No rays before the first render");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: One ray per pixel
+        render.renderImage();
+        for (int[] row : render.getRaysPerPixel())
+            for (int rays : row)
+                assertEquals(1, rays, "One ray per pixel");
+        assertEquals(24, render.getRaysCount(), "Wrong rays count");
+
+        // TC02: Fixed super sampling (traced in packets)
+        render.setPacketSize(2).setSuperSampling(true).setSamplesPerPixel(9).renderImage();
+        assertEquals(9 * 24, render.getRaysCount(), "Wrong rays count of super sampling");
+
+        // TC03: Full adaptive grid of depth 3 without the cache - 4 corners for each of the 1 + 4 + 16 squares
+        render.setSuperSampling(false).setAdaptiveGrid(true).setMaxAdaptiveDepth(3).setColorTolerance(0)
+                .setCacheCorners(false).renderImage();
+        for (int[] row : render.getRaysPerPixel())
+            for (int rays : row)
+                assertEquals(84, rays, "Wrong rays count of a full adaptive grid");
+
+        // TC04: Full adaptive grid of depth 3 with the cache - each of the 5 x 5 lattice points once,
+        // the next pixel in the tile shares a side of 5 points with it
+        render.setCacheCorners(true).setTileSize(16).renderImage();
+        assertEquals(25, render.getRaysPerPixel()[0][0], "Wrong rays count of the first pixel");
+        assertEquals(20, render.getRaysPerPixel()[0][1], "Wrong rays count of the next pixel");
+        assertEquals((6 * 4 + 1) * (4 * 4 + 1), render.getRaysCount(), "Each lattice point of the tile is traced once");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A flat image with the default tolerance - only the pixel corners, each once in the tile
+        Render flat = new Render().setImageWriter(new PixelsWriter(6, 4)).setCamera(camera)
+                .setRayTracerBase(new FunctionTracer(ray -> WHITE)).setAdaptiveGrid(true).setTileSize(16);
+        flat.renderImage();
+        assertEquals(7 * 5, flat.getRaysCount(), "Each pixel corner is traced once");
+
+        // TC11: Depth 1 - only the pixel corners even when they differ
+        render.setMaxAdaptiveDepth(1).setCacheCorners(false).renderImage();
+        assertEquals(4 * 24, render.getRaysCount(), "Four corners per pixel");
+
+        // TC12: The bounds of the depth and of the tolerance
+        assertThrows(IllegalArgumentException.class, () -> new Render().setMaxAdaptiveDepth(0), "Depth 0 must throw");
+        assertThrows(IllegalArgumentException.class, () -> new Render().setMaxAdaptiveDepth(17), "Depth 17 must throw");
+        new Render().setMaxAdaptiveDepth(1).setMaxAdaptiveDepth(16); // Depths 1 and 16 are valid
+        assertThrows(IllegalArgumentException.class, () -> new Render().setColorTolerance(-1),
+                "Negative tolerance must throw");
+        new Render().setColorTolerance(0); // Zero tolerance is valid
+    }
+
+    /**
+     * Test method for the random numbers of the ray tracer in {@link renderer.Render#renderImage()}
+     * - the many lights mode samples the lights by the sequences of the camera's tiles
+     */
+    @Test
+    public void manyLightsReproducible() {
+        Scene scene = new Scene("Many lights scene");
+        scene._geometries.add(new Plane(new Point3D(0, 0, -100), new Vector(0, 0, 1))
+                .setMaterial(new Material().setKd(0.6).setKs(0.2).setNShininess(30)));
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                scene._lightSourceList.add(new PointLight(new Color(i * 40, 500, j * 40),
+                        new Point3D(-225 + 50 * i, -225 + 50 * j, -90)).setKq(0.01));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The same camera gives the same image in the current thread and with several threads
+        PixelsWriter first = new PixelsWriter(16, 16), second = new PixelsWriter(16, 16);
+        new Render().setImageWriter(first).setCamera(camera).setTileSize(4)
+                .setRayTracerBase(new RayTracerBasic(scene).setLightSamples(2)).renderImage();
+        new Render().setImageWriter(second).setCamera(camera).setMultithreading(3).setTileSize(4)
+                .setRayTracerBase(new RayTracerBasic(scene).setLightSamples(2)).renderImage();
+        for (int row = 0; row < 16; ++row)
+            for (int col = 0; col < 16; ++col)
+                assertEquals(first.pixels[row][col], second.pixels[row][col], "The render must be reproducible");
+
+        // TC02: The lights are replaced between renders of the same ray tracer (the number of lights is kept),
+        // the next render is lit by the new lights
+        RayTracerBasic tracer = new RayTracerBasic(scene).setLightSamples(2);
+        new Render().setImageWriter(new PixelsWriter(16, 16)).setCamera(camera).setTileSize(4)
+                .setRayTracerBase(tracer).renderImage();
+        for (int i = 0; i < scene._lightSourceList.size(); ++i)
+            scene._lightSourceList.set(i, new PointLight(new Color(500, 100, 100),
+                    new Point3D(-225 + 5 * i, 225 - 5 * i, -50)).setKq(0.01));
+        PixelsWriter reused = new PixelsWriter(16, 16), fresh = new PixelsWriter(16, 16);
+        new Render().setImageWriter(reused).setCamera(camera).setTileSize(4)
+                .setRayTracerBase(tracer).renderImage();
+        new Render().setImageWriter(fresh).setCamera(camera).setTileSize(4)
+                .setRayTracerBase(new RayTracerBasic(scene).setLightSamples(2)).renderImage();
+        for (int row = 0; row < 16; ++row)
+            for (int col = 0; col < 16; ++col)
+                assertEquals(fresh.pixels[row][col], reused.pixels[row][col], "The render must use the new lights");
+    }
+
+    /**
+     * The white color
+     */
+    private static final Color WHITE = new Color(255, 255, 255);
+
+    /**
+     * Create a render of a square image by a tracer function, super sampled in one thread
+     *
+     * @param size   The image side in pixels
+     * @param colors The color of each ray
+     * @return The render (Render)
+     */
+    private Render samplingRender(int size, Function<Ray, Color> colors) {
+        return new Render()
+                .setImageWriter(new PixelsWriter(size, size))
+                .setCamera(camera)
+                .setRayTracerBase(new FunctionTracer(colors))
+                .setSuperSampling(true);
+    }
+
+    /**
+     * Ray tracer which colors each ray by a function (of its direction) and counts the traced rays
+     */
+    private static class FunctionTracer extends RayTracerBase {
+        /**
+         * The color of each ray
+         */
+        private final Function<Ray, Color> colors;
+
+        /**
+         * The number of the traced rays
+         */
+        final AtomicInteger traced = new AtomicInteger();
+
+        /**
+         * c-tor initialize the color function
+         *
+         * @param colors The color of each ray
+         */
+        FunctionTracer(Function<Ray, Color> colors) {
+            super(new Scene("Function scene"));
+            this.colors = colors;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            traced.incrementAndGet();
+            return colors.apply(ray);
+        }
+    }
+
+    /**
+     * Image writer which keeps the written colors and counts the writes of each pixel (without writing any file)
+     */
+    private static class PixelsWriter extends ImageWriter {
+        /**
+         * The written colors by [row][column]
+         */
+        final java.awt.Color[][] pixels;
+
+        /**
+         * The number of the writes of each pixel by [row][column]
+         */
+        final int[][] writes;
+
+        /**
+         * c-tor allocate the pixels
+         *
+         * @param nX The number of columns
+         * @param nY The number of rows
+         */
+        PixelsWriter(int nX, int nY) {
+            super("pixels", nX, nY);
+            pixels = new java.awt.Color[nY][nX];
+            writes = new int[nY][nX];
+        }
+
+        @Override
+        public synchronized void writePixel(int xIndex, int yIndex, Color color) {
+            pixels[yIndex][xIndex] = color.getColor();
+            ++writes[yIndex][xIndex];
+        }
+    }
 }
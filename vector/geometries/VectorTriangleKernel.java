@@ -0,0 +1,130 @@
+package geometries;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static primitives.Util.alignZero;
+
+/**
+ * The vector (SIMD) kernel of {@link TriangleBatch}: the Möller–Trumbore calculation of {@link Triangle}
+ * on 4 triangles at once (a full leaf of a {@link BVH}), one triangle in each lane.
+ * The lanes calculate exactly the operations of the scalar calculation, so the results are the same,
+ * and the conditions of the scalar calculation are masks of the lanes.
+ * The triangles after the last 4 of a range are intersected one by one, a partly used vector costs more
+ * than the scalar calculation of the triangles.
+ * The class needs the jdk.incubator.vector module, so it is compiled separately:
+ * <pre>javac --add-modules jdk.incubator.vector -cp &lt;classes&gt; -d &lt;classes&gt; vector/geometries/*.java</pre>
+ * and it is used if the program runs with --add-modules jdk.incubator.vector (see {@link TriangleBatch}).
+ *
+ * @author Aviel Buta and Yakir Yohanan
+ */
+final class VectorTriangleKernel implements TriangleBatch.Kernel {
+
+    /**
+     * 4 lanes of doubles
+     */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_256;
+
+    /**
+     * The accuracy of {@link primitives.Util#isZero(double)}: a value is zero if its absolute value is below it
+     */
+    private static final double ZERO = Math.scalb(1.0, -40);
+
+    @Override
+    public int closest(TriangleBatch batch, int start, int end, double ox, double oy, double oz,
+                       double dx, double dy, double dz, double maxDistance, double[] distance) {
+        int closest = -1;
+        int i = start;
+        for (; i + SPECIES.length() <= end; i += SPECIES.length()) {
+            DoubleVector t = distances(batch, i, ox, oy, oz, dx, dy, dz);
+
+            // The closest lane, the first one of the equal distances
+            double min = t.reduceLanes(VectorOperators.MIN);
+            if (min < maxDistance) {
+                maxDistance = min;
+                closest = i + t.compare(VectorOperators.EQ, min).firstTrue();
+            }
+        }
+        for (; i < end; ++i) {
+            double t = batch.intersect(i, ox, oy, oz, dx, dy, dz);
+            if (t < maxDistance) {
+                maxDistance = t;
+                closest = i;
+            }
+        }
+        distance[0] = maxDistance;
+        return closest;
+    }
+
+    @Override
+    public int count(TriangleBatch batch, int start, int end, double ox, double oy, double oz,
+                     double dx, double dy, double dz, double maxDistance) {
+        int count = 0;
+        int i = start;
+        for (; i + SPECIES.length() <= end; i += SPECIES.length()) {
+            DoubleVector t = distances(batch, i, ox, oy, oz, dx, dy, dz);
+
+            // alignZero(t - maxDistance) <= 0, a missed lane is infinite
+            count += t.compare(VectorOperators.NE, TriangleBatch.MISS)
+                    .and(t.sub(maxDistance).compare(VectorOperators.LT, ZERO)).trueCount();
+        }
+        for (; i < end; ++i) {
+            double t = batch.intersect(i, ox, oy, oz, dx, dy, dz);
+            if (t != TriangleBatch.MISS && alignZero(t - maxDistance) <= 0) ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Intersect the ray with the triangles of the lanes by the Möller–Trumbore algorithm
+     * (see {@link Triangle#intersect(double, double, double, double, double, double, double, double, double,
+     * double, double, double, double, double, double)})
+     *
+     * @param batch The batch
+     * @param i     The slot of the first lane
+     * @param ox    The x value of the head of the ray
+     * @param oy    The y value of the head of the ray
+     * @param oz    The z value of the head of the ray
+     * @param dx    The x value of the ray direction
+     * @param dy    The y value of the ray direction
+     * @param dz    The z value of the ray direction
+     * @return The distances of the intersections, {@link TriangleBatch#MISS} in the lanes with no intersection
+     */
+    private static DoubleVector distances(TriangleBatch batch, int i,
+                                          double ox, double oy, double oz, double dx, double dy, double dz) {
+        DoubleVector e1x = DoubleVector.fromArray(SPECIES, batch._e1x, i);
+        DoubleVector e1y = DoubleVector.fromArray(SPECIES, batch._e1y, i);
+        DoubleVector e1z = DoubleVector.fromArray(SPECIES, batch._e1z, i);
+        DoubleVector e2x = DoubleVector.fromArray(SPECIES, batch._e2x, i);
+        DoubleVector e2y = DoubleVector.fromArray(SPECIES, batch._e2y, i);
+        DoubleVector e2z = DoubleVector.fromArray(SPECIES, batch._e2z, i);
+
+        // p = dir x e2, the determinant is zero if the ray is parallel to the triangle
+        DoubleVector px = e2z.mul(dy).sub(e2y.mul(dz));
+        DoubleVector py = e2x.mul(dz).sub(e2z.mul(dx));
+        DoubleVector pz = e2y.mul(dx).sub(e2x.mul(dy));
+        DoubleVector det = e1x.mul(px).add(e1y.mul(py)).add(e1z.mul(pz));
+        VectorMask<Double> hit = det.abs().compare(VectorOperators.GE, ZERO);
+        DoubleVector inv = DoubleVector.broadcast(SPECIES, 1).div(det);
+
+        // The barycentric coordinates of the intersection point (u for the second vertex, w for the third)
+        DoubleVector sx = DoubleVector.broadcast(SPECIES, ox).sub(DoubleVector.fromArray(SPECIES, batch._x0, i));
+        DoubleVector sy = DoubleVector.broadcast(SPECIES, oy).sub(DoubleVector.fromArray(SPECIES, batch._y0, i));
+        DoubleVector sz = DoubleVector.broadcast(SPECIES, oz).sub(DoubleVector.fromArray(SPECIES, batch._z0, i));
+        DoubleVector u = sx.mul(px).add(sy.mul(py)).add(sz.mul(pz)).mul(inv);
+        hit = hit.and(u.compare(VectorOperators.GE, ZERO)).and(u.sub(1).compare(VectorOperators.LE, -ZERO));
+
+        DoubleVector qx = sy.mul(e1z).sub(sz.mul(e1y));
+        DoubleVector qy = sz.mul(e1x).sub(sx.mul(e1z));
+        DoubleVector qz = sx.mul(e1y).sub(sy.mul(e1x));
+        DoubleVector w = qx.mul(dx).add(qy.mul(dy)).add(qz.mul(dz)).mul(inv);
+        hit = hit.and(w.compare(VectorOperators.GE, ZERO)).and(u.add(w).sub(1).compare(VectorOperators.LE, -ZERO));
+
+        // The intersection must be in front of the head of the ray
+        DoubleVector t = e2x.mul(qx).add(e2y.mul(qy)).add(e2z.mul(qz)).mul(inv);
+        hit = hit.and(t.compare(VectorOperators.GE, ZERO));
+        return DoubleVector.broadcast(SPECIES, TriangleBatch.MISS).blend(t, hit);
+    }
+}